@@ -0,0 +1,215 @@
+package gameoflife;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap grid engine, which keeps the bit-packed cells in a memory-mapped file
+ * <p>
+ * The grid can be larger than the physical memory: the OS pages the rows in and out,
+ * the rows are stepped from top to bottom, so the file is read and written sequentially.
+ * The current generation stays in the file; after close() the grid can be opened again.
+ * <p>
+ * File layout:
+ * - header (64 bytes): magic number, x dimension, y dimension, index of the current generation,
+ *   amount of steps since the file was created (the generation, see PlayField.adoptEngine)
+ * - both generations, one after the other (rows with a stride of a multiple of 64 bytes)
+ *
+ * @author Richard Krikler
+ */
+public class MappedGrid extends OffHeapGrid {
+    /**
+     * Magic number at the start of the file ("GOLGRID" + version 1)
+     */
+    private static final long MAGIC = 0x474F4C4752494401L;
+
+    /**
+     * Size of the header in bytes (the generations start aligned to 64 bytes)
+     */
+    private static final long HEADER_BYTES = 64;
+
+    /**
+     * Offset of the x dimension in the header
+     */
+    private static final long DIMENSION_X_OFFSET = 8;
+
+    /**
+     * Offset of the y dimension in the header
+     */
+    private static final long DIMENSION_Y_OFFSET = 12;
+
+    /**
+     * Offset of the index of the current generation (0 or 1) in the header
+     */
+    private static final long CURRENT_OFFSET = 16;
+
+    /**
+     * Offset of the amount of steps since the file was created in the header
+     */
+    private static final long GENERATION_OFFSET = 20;
+
+    /**
+     * File, which contains the grid
+     */
+    private final Path file;
+
+    /**
+     * True while an existing file is mapped (its cells are kept)
+     */
+    private boolean reopening;
+
+    /**
+     * Mapped header of the file
+     */
+    private MemorySegment header;
+
+    /**
+     * Mapped segment of the second generation in the file
+     */
+    private MemorySegment secondGeneration;
+
+    /**
+     * Mapped file (header and both generations)
+     */
+    private MemorySegment mapped;
+
+
+    /**
+     * MappedGrid Constructor; an existing file is overwritten
+     *
+     * @param file       file, which receives the grid
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     * @throws UncheckedIOException if the file can not be mapped
+     */
+    public MappedGrid(Path file, int dimensionX, int dimensionY) {
+        this.file = file;
+        setSize(dimensionX, dimensionY);
+    }
+
+    /**
+     * MappedGrid Constructor for an existing file
+     *
+     * @param file file, which contains the grid
+     */
+    private MappedGrid(Path file) {
+        this.file = file;
+    }
+
+
+    /**
+     * Open a grid, which has been stored by a MappedGrid before
+     *
+     * @param file file, which contains the grid
+     * @return grid with the current generation of the file
+     * @throws UncheckedIOException     if the file can not be read or mapped
+     * @throws IllegalArgumentException if the file does not contain a grid
+     */
+    public static MappedGrid open(Path file) {
+        int dimensionX;
+        int dimensionY;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("The file (\"" + file + "\") does not contain a grid!");
+            }
+            MemorySegment fileHeader = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES, arena);
+            if (fileHeader.get(ValueLayout.JAVA_LONG, 0) != MAGIC) {
+                throw new IllegalArgumentException("The file (\"" + file + "\") does not contain a grid!");
+            }
+            dimensionX = fileHeader.get(ValueLayout.JAVA_INT, DIMENSION_X_OFFSET);
+            dimensionY = fileHeader.get(ValueLayout.JAVA_INT, DIMENSION_Y_OFFSET);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        MappedGrid mappedGrid = new MappedGrid(file);
+        mappedGrid.reopening = true;
+        mappedGrid.setSize(dimensionX, dimensionY);
+        mappedGrid.reopening = false;
+        mappedGrid.recount();
+        return mappedGrid;
+    }
+
+    /**
+     * Get the file, which contains the grid
+     *
+     * @return path of the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+
+    @Override
+    protected MemorySegment[] allocateGenerations(Arena arena, long bytes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A new grid starts with an empty file, the mapping extends it with zeros
+            if (!reopening) {
+                channel.truncate(0);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 2 * bytes, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        header = mapped.asSlice(0, HEADER_BYTES);
+        MemorySegment firstGeneration = mapped.asSlice(HEADER_BYTES, bytes);
+        secondGeneration = mapped.asSlice(HEADER_BYTES + bytes, bytes);
+
+        if (!reopening) {
+            header.set(ValueLayout.JAVA_LONG, 0, MAGIC);
+            header.set(ValueLayout.JAVA_INT, DIMENSION_X_OFFSET, getDimensionX());
+            header.set(ValueLayout.JAVA_INT, DIMENSION_Y_OFFSET, getDimensionY());
+            header.set(ValueLayout.JAVA_INT, CURRENT_OFFSET, 0);
+            header.set(ValueLayout.JAVA_INT, GENERATION_OFFSET, 0);
+        }
+
+        if (header.get(ValueLayout.JAVA_INT, CURRENT_OFFSET) == 1) {
+            return new MemorySegment[]{secondGeneration, firstGeneration};
+        }
+        return new MemorySegment[]{firstGeneration, secondGeneration};
+    }
+
+    @Override
+    protected void generationsSwapped(MemorySegment cells) {
+        header.set(ValueLayout.JAVA_INT, CURRENT_OFFSET, cells == secondGeneration ? 1 : 0);
+        header.set(ValueLayout.JAVA_INT, GENERATION_OFFSET, getGeneration() + 1);
+    }
+
+    /**
+     * Get the amount of steps of the grid since the file was created
+     * (a new size or loaded cells create the file again)
+     *
+     * @return generation of the current cells
+     */
+    public int getGeneration() {
+        return header.get(ValueLayout.JAVA_INT, GENERATION_OFFSET);
+    }
+
+    /**
+     * Write the changed pages of the file to the storage device
+     */
+    public void force() {
+        if (mapped != null) {
+            mapped.force();
+        }
+    }
+
+    /**
+     * Write the file and unmap it; the grid can be opened again with open()
+     */
+    @Override
+    public void close() {
+        force();
+        mapped = null;
+        super.close();
+    }
+}
@@ -0,0 +1,515 @@
+package gameoflife;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Bit-packed grid engine, which stores the cells outside of the Java heap
+ * - 64 cells are stored per long, like in the BitGrid
+ * - every row starts at a multiple of 64 bytes (cache line), the stride is rounded up
+ * - both generations are allocated in one shared Arena; close() frees them at once
+ * - the rows are stepped from top to bottom, only 3 rows are copied onto the heap at a time
+ * <p>
+ * The grid is not freed by the garbage collector, so it has to be closed when it is not used anymore.
+ * <p>
+ * Only the stepping stays off the heap. Everything, which leaves the engine, is copied onto the heap:
+ * - every generation stored for stepping back (toBits, one bit per cell);
+ *   a PlayField in the double buffered mode does not store them (see PlayField.setDoubleBuffered)
+ * - the play field array and the snapshots for the GUI (toArray, one int per cell)
+ * <p>
+ * It uses the Foreign Function &amp; Memory API, a preview API in JDK 21, so it is in the optional
+ * source folder src-jdk21 (--release 21 --enable-preview) and loaded by name (see GridEngine.createOffHeap).
+ *
+ * @author Richard Krikler
+ */
+public class OffHeapGrid implements GridEngine, AutoCloseable {
+    /**
+     * Amount of cells stored in one word
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * Alignment of the rows in bytes (one cache line)
+     */
+    private static final long ROW_ALIGNMENT = 64;
+
+    /**
+     * Layout of one word
+     */
+    private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG;
+
+    /**
+     * x dimension of the grid
+     */
+    private int dimensionX;
+
+    /**
+     * y dimension of the grid
+     */
+    private int dimensionY;
+
+    /**
+     * Amount of words per row
+     */
+    private int wordsPerRow;
+
+    /**
+     * Amount of bytes between the start of two rows
+     */
+    private long rowStride;
+
+    /**
+     * Mask of the valid cells in the last word of a row
+     */
+    private long lastWordMask;
+
+    /**
+     * Arena, which owns the memory of both generations
+     */
+    private Arena arena;
+
+    /**
+     * Words of the current generation
+     */
+    private MemorySegment cells;
+
+    /**
+     * Words of the next generation, swapped with cells after every step
+     */
+    private MemorySegment nextCells;
+
+    /**
+     * True for every row, which has changed in the last generation (or has been edited)
+     */
+    private boolean[] rowChanged;
+
+    /**
+     * Changed flags of the rows in the generation, which is computed
+     */
+    private boolean[] nextRowChanged;
+
+    /**
+     * Rows of the current generation, which are copied onto the heap while stepping (row y in y % 3)
+     */
+    private long[][] rowBuffers;
+
+    /**
+     * Row of the current generation in every row buffer; -1 = empty
+     */
+    private final int[] bufferedRows = new int[3];
+
+    /**
+     * Next generation of a row, before it is copied into the segment
+     */
+    private long[] nextRow;
+
+    /**
+     * Amount of living cells, updated by every step and every edited cell
+     */
+    private long livingCells;
+
+    /**
+     * Zobrist hash of the living cells, updated for every cell, which changes its state
+     */
+    private long hash;
+
+    /**
+     * Game rules of the last step; if the rules change, every row has to be computed again
+     */
+    private Rule lastRule;
+
+
+    /**
+     * OffHeapGrid Constructor
+     *
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     */
+    public OffHeapGrid(int dimensionX, int dimensionY) {
+        setSize(dimensionX, dimensionY);
+    }
+
+    /**
+     * OffHeapGrid Constructor for subclasses, which call setSize themselves
+     */
+    protected OffHeapGrid() {
+    }
+
+
+    @Override
+    public void setSize(int dimensionX, int dimensionY) {
+        // The memory of the old size is freed at once
+        if (arena != null) {
+            arena.close();
+        }
+
+        this.dimensionX = dimensionX;
+        this.dimensionY = dimensionY;
+        wordsPerRow = (dimensionX + WORD_BITS - 1) / WORD_BITS;
+        rowStride = ((long) wordsPerRow * Long.BYTES + ROW_ALIGNMENT - 1) / ROW_ALIGNMENT * ROW_ALIGNMENT;
+
+        int usedBits = dimensionX % WORD_BITS;
+        lastWordMask = usedBits == 0 ? -1L : (1L << usedBits) - 1;
+
+        arena = Arena.ofShared();
+        long bytes = Math.max(rowStride * dimensionY, ROW_ALIGNMENT);
+        MemorySegment[] generations = allocateGenerations(arena, bytes);
+        cells = generations[0];
+        nextCells = generations[1];
+
+        rowChanged = new boolean[dimensionY];
+        nextRowChanged = new boolean[dimensionY];
+        rowBuffers = new long[3][wordsPerRow];
+        nextRow = new long[wordsPerRow];
+        // Every row has to be computed in the next generation
+        Arrays.fill(rowChanged, true);
+        livingCells = 0;
+        hash = 0L;
+    }
+
+    /**
+     * Allocate the memory of both generations.
+     * The memory of an arena is zeroed, so both generations start empty.
+     *
+     * @param arena arena, which owns the memory
+     * @param bytes size of one generation in bytes; a multiple of 64
+     * @return segments of the current and the next generation
+     */
+    protected MemorySegment[] allocateGenerations(Arena arena, long bytes) {
+        return new MemorySegment[]{arena.allocate(bytes, ROW_ALIGNMENT), arena.allocate(bytes, ROW_ALIGNMENT)};
+    }
+
+    /**
+     * Called after a step, when the next generation has become the current generation
+     *
+     * @param cells segment of the new current generation
+     */
+    protected void generationsSwapped(MemorySegment cells) {
+    }
+
+    /**
+     * Count the living cells and compute the hash again, row by row
+     * (e.g. if the segments already contained cells, when they were allocated)
+     */
+    protected void recount() {
+        livingCells = 0;
+        hash = 0L;
+        for (int y = 0; y < dimensionY; y++) {
+            readRow(cells, y, nextRow);
+            for (int i = 0; i < wordsPerRow; i++) {
+                livingCells += Long.bitCount(nextRow[i]);
+                hash ^= BitGrid.hashDelta(nextRow[i], i * WORD_BITS, y);
+            }
+        }
+    }
+
+    /**
+     * Free the memory of the grid; the grid can not be used afterwards (until setSize is called)
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+        }
+    }
+
+    @Override
+    public int getDimensionX() {
+        return dimensionX;
+    }
+
+    @Override
+    public int getDimensionY() {
+        return dimensionY;
+    }
+
+    /**
+     * Get the amount of bytes between the start of two rows
+     *
+     * @return row stride in bytes; a multiple of 64
+     */
+    public long getRowStride() {
+        return rowStride;
+    }
+
+
+    @Override
+    public int getCell(int posX, int posY) {
+        checkBounds(posX, posY);
+        return (int) ((cells.get(WORD, offset(posX / WORD_BITS, posY)) >>> posX) & 1L);
+    }
+
+    @Override
+    public void setCell(int posX, int posY, int value) {
+        checkBounds(posX, posY);
+        long offset = offset(posX / WORD_BITS, posY);
+        long word = cells.get(WORD, offset);
+        long newWord = value == 1 ? word | (1L << posX) : word & ~(1L << posX);
+
+        if (newWord != word) {
+            cells.set(WORD, offset, newWord);
+            livingCells += Long.bitCount(newWord) - Long.bitCount(word);
+            hash ^= Zobrist.key(posX, posY);
+            rowChanged[posY] = true;
+        }
+    }
+
+    /**
+     * Throw an ArrayIndexOutOfBoundsException (like the int array would do)
+     * if the position is not within the grid
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     */
+    private void checkBounds(int posX, int posY) {
+        if (posX < 0 || posX >= dimensionX) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Index " + posX + " out of bounds for length " + dimensionX);
+        }
+        if (posY < 0 || posY >= dimensionY) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Index " + posY + " out of bounds for length " + dimensionY);
+        }
+    }
+
+    /**
+     * Get the byte offset of a word
+     *
+     * @param word index of the word within the row
+     * @param posY y position of the row
+     * @return byte offset in the segment
+     */
+    private long offset(int word, int posY) {
+        return posY * rowStride + (long) word * Long.BYTES;
+    }
+
+
+    @Override
+    public void load(int[][] playField) {
+        setSize(playField.length > 0 ? playField[0].length : 0, playField.length);
+
+        for (int y = 0; y < dimensionY; y++) {
+            Arrays.fill(nextRow, 0L);
+            for (int x = 0; x < dimensionX; x++) {
+                if (playField[y][x] == 1) {
+                    nextRow[x / WORD_BITS] |= 1L << x;
+                    hash ^= Zobrist.key(x, y);
+                }
+            }
+            writeRow(cells, y, nextRow);
+            for (long word : nextRow) {
+                livingCells += Long.bitCount(word);
+            }
+        }
+    }
+
+    /**
+     * Copy the grid into a new int array on the heap (one int per cell)
+     *
+     * @return int[][] array which contains the play field
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] playField = new int[dimensionY][dimensionX];
+        long[] row = new long[wordsPerRow];
+
+        for (int y = 0; y < dimensionY; y++) {
+            readRow(cells, y, row);
+            for (int x = 0; x < dimensionX; x++) {
+                playField[y][x] = (int) ((row[x / WORD_BITS] >>> x) & 1L);
+            }
+        }
+
+        return playField;
+    }
+
+    /**
+     * Pack the grid into bits on the heap (one bit per cell), e.g. to store it in the GenerationHistory.
+     * The rows are copied from the segment in bulk, not cell by cell.
+     *
+     * @return packed cells
+     */
+    @Override
+    public long[] toBits() {
+        long[] bits = new long[(int) (((long) dimensionX * dimensionY + WORD_BITS - 1) / WORD_BITS)];
+        long[] row = new long[wordsPerRow];
+
+        for (int y = 0; y < dimensionY; y++) {
+            readRow(cells, y, row);
+            for (int word = 0; word < wordsPerRow; word++) {
+                int x = word * WORD_BITS;
+                GenerationHistory.packWord(bits, (long) y * dimensionX + x, row[word],
+                        Math.min(WORD_BITS, dimensionX - x));
+            }
+        }
+
+        return bits;
+    }
+
+    /**
+     * Get the amount of living cells
+     *
+     * @return amount of living cells; Integer.MAX_VALUE if there are more
+     * (see getLivingCellsLong)
+     */
+    @Override
+    public int countLiving() {
+        return (int) Math.min(livingCells, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the amount of living cells of a grid, which can contain more than Integer.MAX_VALUE cells
+     *
+     * @return amount of living cells
+     */
+    public long getLivingCellsLong() {
+        return livingCells;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return true;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+
+    @Override
+    public boolean step(Rule rule) {
+        if (rule.getRadius() > 1) {
+            throw new IllegalArgumentException("Larger than Life rules are only supported by the int array");
+        }
+        int reanimateMask = rule.getReanimateMask();
+        int keepLifeMask = rule.getKeepLifeMask();
+        if (!rule.equals(lastRule)) {
+            Arrays.fill(rowChanged, true);
+            lastRule = rule;
+        }
+        Arrays.fill(bufferedRows, -1);
+
+        boolean changed = false;
+        long livingChange = 0;
+        long hashDelta = 0L;
+
+        for (int y = 0; y < dimensionY; y++) {
+            nextRowChanged[y] = false;
+
+            // A row, which has not changed and does not touch a changed row, stays the same.
+            // The next segment still contains the generation before, which is equal.
+            if (!isActive(y)) {
+                continue;
+            }
+
+            long[] above = y > 0 ? bufferedRow(y - 1) : null;
+            long[] row = bufferedRow(y);
+            long[] below = y + 1 < dimensionY ? bufferedRow(y + 1) : null;
+
+            boolean rowChange = false;
+            for (int i = 0; i < wordsPerRow; i++) {
+                long next = BitGrid.nextWord(
+                        word(above, i - 1), word(above, i), word(above, i + 1),
+                        word(row, i - 1), row[i], word(row, i + 1),
+                        word(below, i - 1), word(below, i), word(below, i + 1),
+                        reanimateMask, keepLifeMask);
+
+                if (i == wordsPerRow - 1) {
+                    next &= lastWordMask;
+                }
+
+                nextRow[i] = next;
+                if (next != row[i]) {
+                    rowChange = true;
+                    livingChange += Long.bitCount(next) - Long.bitCount(row[i]);
+                    hashDelta ^= BitGrid.hashDelta(next ^ row[i], i * WORD_BITS, y);
+                }
+            }
+            writeRow(nextCells, y, nextRow);
+            nextRowChanged[y] = rowChange;
+            changed |= rowChange;
+        }
+
+        boolean[] swapRows = rowChanged;
+        rowChanged = nextRowChanged;
+        nextRowChanged = swapRows;
+
+        if (changed) {
+            MemorySegment swap = cells;
+            cells = nextCells;
+            nextCells = swap;
+            livingCells += livingChange;
+            hash ^= hashDelta;
+            generationsSwapped(cells);
+        }
+        return changed;
+    }
+
+    /**
+     * Check if a row has to be computed
+     * (it has changed in the last generation or touches a row, which has changed)
+     *
+     * @param posY y position of the row
+     * @return true if the row has to be computed
+     */
+    private boolean isActive(int posY) {
+        return rowChanged[posY]
+                || (posY > 0 && rowChanged[posY - 1])
+                || (posY + 1 < dimensionY && rowChanged[posY + 1]);
+    }
+
+    /**
+     * Get a row of the current generation from the row buffers; it is copied from the segment if needed
+     *
+     * @param posY y position of the row
+     * @return words of the row
+     */
+    private long[] bufferedRow(int posY) {
+        int buffer = posY % 3;
+        if (bufferedRows[buffer] != posY) {
+            readRow(cells, posY, rowBuffers[buffer]);
+            bufferedRows[buffer] = posY;
+        }
+        return rowBuffers[buffer];
+    }
+
+    /**
+     * Get a word of a row; words outside of the grid are empty
+     *
+     * @param row  words of the row or null if the row is outside of the grid
+     * @param word index of the word within the row
+     * @return word containing 64 cells
+     */
+    private long word(long[] row, int word) {
+        if (row == null || word < 0 || word >= wordsPerRow) {
+            return 0L;
+        }
+        return row[word];
+    }
+
+    /**
+     * Copy a row of a segment onto the heap
+     *
+     * @param segment segment of a generation
+     * @param posY    y position of the row
+     * @param row     receives the words of the row
+     */
+    private void readRow(MemorySegment segment, int posY, long[] row) {
+        MemorySegment.copy(segment, WORD, posY * rowStride, row, 0, wordsPerRow);
+    }
+
+    /**
+     * Copy a row from the heap into a segment
+     *
+     * @param segment segment of a generation
+     * @param posY    y position of the row
+     * @param row     words of the row
+     */
+    private void writeRow(MemorySegment segment, int posY, long[] row) {
+        MemorySegment.copy(row, 0, segment, WORD, posY * rowStride, wordsPerRow);
+    }
+}
@@ -0,0 +1,143 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.GridEngine;
+import gameoflife.MappedGrid;
+import gameoflife.PlayField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the MappedGrid Class
+ *
+ * @author Richard Krikler
+ */
+class MappedGridTest {
+
+    /**
+     * Temporary directory for the grid files
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 10; Y: 10
+     * game speed of 1 second per generation
+     * standard rules for
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     */
+    private final PlayField playField = new PlayField(10, 10, 1, new int[]{3}, new int[]{2, 3});
+
+
+    @Test
+    void sameResultAsBitGrid() {
+        int[][] field = randomField(17, 150, 90);
+
+        PlayField bitGridField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        bitGridField.setEngine(new BitGrid(0, 0));
+        bitGridField.setPlayField(field);
+
+        try (MappedGrid mappedGrid = new MappedGrid(tempDir.resolve("grid.gol"), 0, 0)) {
+            playField.setEngine(mappedGrid);
+            playField.setDoubleBuffered(true);
+            playField.setPlayField(field);
+
+            for (int generation = 0; generation < 40; generation++) {
+                assertEquals(bitGridField.stepForward(), playField.stepForward());
+                assertTrue(Arrays.deepEquals(bitGridField.getPlayField(), playField.getPlayField()));
+                assertEquals(bitGridField.getHash(), playField.getHash());
+            }
+        }
+    }
+
+    @Test
+    void createByName() {
+        GridEngine engine = GridEngine.createMapped(tempDir.resolve("named.gol"), 20, 10);
+        assertTrue(engine instanceof MappedGrid);
+        assertEquals(10, engine.getDimensionY());
+        ((MappedGrid) engine).close();
+        assertTrue(Files.exists(tempDir.resolve("named.gol")));
+    }
+
+    @Test
+    void reopen() {
+        Path file = tempDir.resolve("blinker.gol");
+        int[][] expected;
+        long hash;
+        try (MappedGrid mappedGrid = new MappedGrid(file, 70, 8)) {
+            playField.setEngine(mappedGrid);
+            playField.setDoubleBuffered(true);
+            playField.setSize(70, 8);
+            playField.setCell(65, 3, 1);
+            playField.setCell(66, 3, 1);
+            playField.setCell(67, 3, 1);
+            playField.setCell(1, 1, 1);
+
+            // An odd amount of generations: the second generation of the file is the current one
+            for (int generation = 0; generation < 3; generation++) {
+                playField.stepForward();
+            }
+            expected = playField.getPlayField();
+            hash = playField.getHash();
+        }
+
+        // The last generation is stored in place and restored without the PresetManager
+        try (MappedGrid mappedGrid = MappedGrid.open(file)) {
+            assertEquals(70, mappedGrid.getDimensionX());
+            assertEquals(8, mappedGrid.getDimensionY());
+            assertTrue(Arrays.deepEquals(expected, mappedGrid.toArray()));
+            assertEquals(1, mappedGrid.getCell(66, 2));
+            assertEquals(3, mappedGrid.countLiving());
+            assertEquals(hash, mappedGrid.getHash());
+
+            assertEquals(3, mappedGrid.getGeneration());
+
+            // The run is continued
+            assertTrue(mappedGrid.step(playField.getRule()));
+            assertEquals(1, mappedGrid.getCell(65, 3));
+        }
+
+        // The run is continued through a play field, which keeps the cells of the file
+        try (MappedGrid mappedGrid = MappedGrid.open(file)) {
+            PlayField resumedField = new PlayField(0, 0);
+            resumedField.setRule(playField.getRule());
+            resumedField.adoptEngine(mappedGrid, mappedGrid.getGeneration());
+            resumedField.setDoubleBuffered(true);
+            assertEquals(4, resumedField.getGeneration());
+            assertEquals(70, resumedField.getDimensionX());
+            assertEquals(3, resumedField.getLivingCells());
+            assertEquals(1, resumedField.getCell(65, 3));
+
+            assertTrue(resumedField.stepForward());
+            assertEquals(5, resumedField.getGeneration());
+            assertTrue(Arrays.deepEquals(expected, resumedField.getPlayField()));
+        }
+        try (MappedGrid mappedGrid = MappedGrid.open(file)) {
+            assertEquals(5, mappedGrid.getGeneration());
+            assertEquals(3, mappedGrid.countLiving());
+        }
+    }
+
+    @Test
+    void openInvalidFile() throws IOException {
+        Path file = tempDir.resolve("invalid.gol");
+        Files.writeString(file, "no grid");
+        assertThrows(IllegalArgumentException.class, () -> MappedGrid.open(file));
+        Files.write(file, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> MappedGrid.open(file));
+    }
+}
@@ -0,0 +1,138 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.GridEngine;
+import gameoflife.OffHeapGrid;
+import gameoflife.PlayField;
+import gameoflife.Zobrist;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the OffHeapGrid Class
+ *
+ * @author Richard Krikler
+ */
+class OffHeapGridTest {
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 10; Y: 10
+     * game speed of 1 second per generation
+     * standard rules for
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     */
+    private final PlayField playField = new PlayField(10, 10, 1, new int[]{3}, new int[]{2, 3});
+
+
+    @Test
+    void getAndSetCell() {
+        try (OffHeapGrid offHeapGrid = new OffHeapGrid(130, 5)) {
+            // 3 words per row, the rows start at multiples of 64 bytes
+            assertEquals(64, offHeapGrid.getRowStride());
+            offHeapGrid.setCell(0, 0, 1);
+            offHeapGrid.setCell(129, 4, 1);
+            offHeapGrid.setCell(64, 2, 1);
+            offHeapGrid.setCell(64, 2, 0);
+
+            assertEquals(1, offHeapGrid.getCell(0, 0));
+            assertEquals(1, offHeapGrid.getCell(129, 4));
+            assertEquals(0, offHeapGrid.getCell(64, 2));
+            assertEquals(2, offHeapGrid.countLiving());
+            assertEquals(Zobrist.key(0, 0) ^ Zobrist.key(129, 4), offHeapGrid.getHash());
+            assertThrows(ArrayIndexOutOfBoundsException.class, () -> offHeapGrid.getCell(130, 0));
+
+            offHeapGrid.setSize(600, 2);
+            assertEquals(128, offHeapGrid.getRowStride());
+            assertEquals(0, offHeapGrid.countLiving());
+        }
+    }
+
+    @Test
+    void sameResultAsBitGrid() {
+        int[][] field = randomField(16, 200, 150);
+
+        PlayField bitGridField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        bitGridField.setEngine(new BitGrid(0, 0));
+        bitGridField.setPlayField(field);
+        OffHeapGrid offHeapGrid = new OffHeapGrid(0, 0);
+        playField.setEngine(offHeapGrid);
+        playField.setPlayField(field);
+
+        for (int generation = 0; generation < 60; generation++) {
+            assertEquals(bitGridField.stepForward(), playField.stepForward());
+            assertTrue(Arrays.deepEquals(bitGridField.getPlayField(), playField.getPlayField()));
+            assertEquals(bitGridField.getHash(), playField.getHash());
+            assertEquals(bitGridField.getEngine().countLiving(), offHeapGrid.countLiving());
+        }
+
+        // Another rule computes every row again
+        bitGridField.setRule("B36/S23");
+        playField.setRule("B36/S23");
+        for (int generation = 0; generation < 10; generation++) {
+            assertEquals(bitGridField.stepForward(), playField.stepForward());
+            assertTrue(Arrays.deepEquals(bitGridField.getPlayField(), playField.getPlayField()));
+        }
+        offHeapGrid.close();
+    }
+
+    @Test
+    void toBitsSameAsBitGrid() {
+        // The rows do not end at a word boundary, so the packed rows are shifted against the words
+        int[][] field = randomField(16, 130, 7);
+
+        BitGrid bitGrid = new BitGrid(0, 0);
+        bitGrid.load(field);
+        try (OffHeapGrid offHeapGrid = new OffHeapGrid(0, 0)) {
+            offHeapGrid.load(field);
+            assertArrayEquals(bitGrid.toBits(), offHeapGrid.toBits());
+
+            // The packed generations are stored for stepping back
+            playField.setEngine(offHeapGrid);
+            playField.setPlayField(field);
+            assertTrue(playField.stepForward());
+            assertTrue(playField.stepForward());
+            assertTrue(playField.stepTo(0));
+            assertTrue(Arrays.deepEquals(field, playField.getPlayField()));
+        }
+    }
+
+    @Test
+    void createByName() {
+        GridEngine engine = GridEngine.createOffHeap(20, 10);
+        assertTrue(engine instanceof OffHeapGrid);
+        assertEquals(20, engine.getDimensionX());
+        ((OffHeapGrid) engine).close();
+    }
+
+    @Test
+    void stepDoubleBuffered() {
+        try (OffHeapGrid offHeapGrid = new OffHeapGrid(10, 10)) {
+            playField.setEngine(offHeapGrid);
+            playField.setDoubleBuffered(true);
+            playField.setCell(1, 2, 1);
+            playField.setCell(2, 2, 1);
+            playField.setCell(3, 2, 1);
+
+            // The generations are not copied onto the heap, so it is not possible to step back
+            assertTrue(playField.stepForward());
+            assertEquals(1, playField.getCell(2, 1));
+            assertEquals(1, playField.getCell(2, 3));
+            assertFalse(playField.stepTo(0));
+            assertEquals(0, playField.getHistory().size());
+        }
+        // The memory is freed
+        assertThrows(IllegalStateException.class, () -> playField.getCell(0, 0));
+    }
+}
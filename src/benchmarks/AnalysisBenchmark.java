@@ -0,0 +1,76 @@
+package benchmarks;
+
+import gameoflife.Analysis;
+import gameoflife.PlayField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the analysis: the living cells of a whole game are added generation by generation.
+ * The amounts of living cells are recorded from a soup, before the benchmark starts.
+ *
+ * @author Richard Krikler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class AnalysisBenchmark {
+    /**
+     * Edge length of the soup, from which the living cells are recorded
+     */
+    private static final int SOUP_SIZE = 256;
+
+    /**
+     * Amount of generations of the game
+     */
+    @Param({"1000", "10000", "100000"})
+    public int generations;
+
+    /**
+     * Living cells of every generation (index = generation)
+     */
+    private int[] livingCells;
+
+
+    /**
+     * Record the living cells of a soup
+     */
+    @Setup
+    public void setUp() {
+        PlayField playField = BenchmarkFields.create(SOUP_SIZE, "B3/S23", "0.3");
+        livingCells = new int[generations + 1];
+        for (int generation = 0; generation <= generations; generation++) {
+            livingCells[generation] = playField.getLivingCells();
+            playField.stepForward();
+        }
+    }
+
+
+    /**
+     * Add the living cells of all generations to a new analysis
+     *
+     * @return analysis with all generations
+     */
+    @Benchmark
+    public Analysis addCellCount() {
+        Analysis analysis = new Analysis();
+        for (int generation = 0; generation <= generations; generation++) {
+            analysis.addCellCount(generation, livingCells[generation]);
+        }
+        return analysis;
+    }
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import gameoflife.PlayField;
+import gameoflife.PresetCsv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Play fields for the benchmarks: the same parameters always give the same play field
+ *
+ * @author Richard Krikler
+ */
+final class BenchmarkFields {
+    /**
+     * Path to the folder, which contains the bundled presets
+     */
+    static final String PRESET_PATH = "resources/PlayFieldPresets";
+
+    /**
+     * Seed of the random fill, so every run benchmarks the same soup
+     */
+    static final long SEED = 20201130L;
+
+
+    /**
+     * BenchmarkFields Constructor (only static methods)
+     */
+    private BenchmarkFields() {
+    }
+
+
+    /**
+     * Create a square play field
+     *
+     * @param size edge length of the play field
+     * @param rule game rules, e.g. B3/S23
+     * @param fill density of the random fill (e.g. 0.3) or the name of a bundled preset (e.g. r-Pentomino),
+     *             which is repeated over the whole play field
+     * @return double buffered play field with the starting generation
+     */
+    static PlayField create(int size, String rule, String fill) {
+        PlayField playField = new PlayField(size, size);
+        playField.setRule(rule);
+        // The benchmarks step many generations; storing them all would only measure the history
+        playField.setDoubleBuffered(true);
+
+        if (Character.isDigit(fill.charAt(0))) {
+            playField.placeRandomly(SEED, Double.parseDouble(fill));
+        } else {
+            playField.setPlayField(tile(loadPreset(fill), size));
+        }
+        return playField;
+    }
+
+    /**
+     * Read the lines of a bundled preset file
+     *
+     * @param name name of the preset (file name without .csv)
+     * @return lines of the CSV file
+     * @throws UncheckedIOException if the file can not be read
+     */
+    static List<String> readPreset(String name) {
+        try {
+            return Files.readAllLines(Path.of(PRESET_PATH, name + ".csv"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load a bundled preset (without the error dialogs of the PresetManager)
+     *
+     * @param name name of the preset (file name without .csv)
+     * @return preset as int[][] array
+     * @throws IllegalArgumentException if the preset is not valid
+     */
+    static int[][] loadPreset(String name) {
+        int[][] preset = PresetCsv.parse(readPreset(name));
+        if (preset == null) {
+            throw new IllegalArgumentException("The preset (\"" + name + "\") could not be loaded!");
+        }
+        return preset;
+    }
+
+    /**
+     * Repeat a preset over a square play field
+     *
+     * @param preset preset as int[][] array
+     * @param size   edge length of the play field
+     * @return play field, which is covered by copies of the preset
+     */
+    static int[][] tile(int[][] preset, int size) {
+        int[][] playField = new int[size][size];
+        for (int posY = 0; posY < size; posY++) {
+            int[] presetRow = preset[posY % preset.length];
+            for (int posX = 0; posX < size; posX++) {
+                playField[posY][posX] = presetRow[posX % presetRow.length];
+            }
+        }
+        return playField;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks (from the root of the project, so the bundled presets are found)
+ * <p>
+ * The usual JMH options can be given, e.g. only the step benchmarks of small play fields:
+ * BenchmarkRunner PlayFieldBenchmark.stepForward -p size=64,512
+ * <p>
+ * The allocation rate is always reported (gc profiler),
+ * the results are written to jmh-result.json, so two runs can be compared.
+ *
+ * @author Richard Krikler
+ */
+public final class BenchmarkRunner {
+    /**
+     * Default file of the results
+     */
+    private static final String RESULT_FILE = "jmh-result.json";
+
+
+    /**
+     * BenchmarkRunner Constructor (only static methods)
+     */
+    private BenchmarkRunner() {
+    }
+
+
+    /**
+     * Run the benchmarks
+     *
+     * @param args JMH command line options; without a benchmark name all benchmarks are run
+     * @throws RunnerException            if a benchmark fails
+     * @throws CommandLineOptionException if the options are not valid
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(RESULT_FILE).resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+}
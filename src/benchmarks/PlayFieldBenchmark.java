@@ -0,0 +1,108 @@
+package benchmarks;
+
+import gameoflife.PlayField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the play field engine
+ * - stepForward: throughput and the latency of a single generation (percentiles of the sample time)
+ * - stepTo: a jump over STEP_TO_GENERATIONS generations
+ * - getLivingCells
+ * <p>
+ * Every iteration starts again from the same play field (see BenchmarkFields.create),
+ * so soups, which die out or become stable, do not distort the later iterations.
+ *
+ * @author Richard Krikler
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "--add-modules=jdk.incubator.vector"})
+public class PlayFieldBenchmark {
+    /**
+     * Amount of generations of one stepTo call
+     */
+    private static final int STEP_TO_GENERATIONS = 64;
+
+    /**
+     * Edge length of the square play field
+     */
+    @Param({"64", "512", "2048", "8192"})
+    public int size;
+
+    /**
+     * Game rules
+     */
+    @Param({"B3/S23", "B36/S23", "B3678/S34678"})
+    public String rule;
+
+    /**
+     * Density of the random fill or the name of a bundled preset (see BenchmarkFields.create)
+     */
+    @Param({"0.1", "0.3", "0.5", "r-Pentomino", "Pulsator"})
+    public String fill;
+
+    /**
+     * Play field of the benchmark
+     */
+    private PlayField playField;
+
+
+    /**
+     * Create the play field for the next iteration
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        playField = BenchmarkFields.create(size, rule, fill);
+    }
+
+
+    /**
+     * Step the play field by one generation
+     *
+     * @return true if the play field has changed
+     */
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean stepForward() {
+        return playField.stepForward();
+    }
+
+    /**
+     * Jump STEP_TO_GENERATIONS generations forward
+     *
+     * @return true if it was possible to go to the generation
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean stepTo() {
+        return playField.stepTo(playField.getGeneration() + STEP_TO_GENERATIONS);
+    }
+
+    /**
+     * Get the amount of living cells of the current generation
+     *
+     * @return amount of living cells
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int getLivingCells() {
+        return playField.getLivingCells();
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import gameoflife.PlayField;
+import gameoflife.PresetManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion between play fields and the preset (CSV) format.
+ * The play field is a bundled preset, which is repeated over the whole play field.
+ *
+ * @author Richard Krikler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "--add-modules=jdk.incubator.vector"})
+public class PresetBenchmark {
+    /**
+     * Edge length of the square play field
+     */
+    @Param({"64", "512", "2048"})
+    public int size;
+
+    /**
+     * Name of the bundled preset
+     */
+    @Param({"Glider", "Pulsator", "Stable Patterns"})
+    public String preset;
+
+    /**
+     * Preset Manager (without a stage)
+     */
+    private PresetManager presetManager;
+
+    /**
+     * Play field, which is converted to CSV
+     */
+    private PlayField playField;
+
+    /**
+     * Lines of the CSV file of the play field
+     */
+    private List<String> lines;
+
+
+    /**
+     * Create the play field and its CSV lines
+     */
+    @Setup
+    public void setUp() {
+        presetManager = new PresetManager(null, BenchmarkFields.PRESET_PATH);
+        playField = new PlayField(size, size);
+        playField.setPlayField(BenchmarkFields.tile(BenchmarkFields.loadPreset(preset), size));
+        lines = Arrays.asList(presetManager.convertToCSV(playField).split(System.lineSeparator()));
+    }
+
+
+    /**
+     * Convert the play field to CSV format
+     *
+     * @return String containing the play field
+     */
+    @Benchmark
+    public String convertToCSV() {
+        return presetManager.convertToCSV(playField);
+    }
+
+    /**
+     * Convert the lines of a CSV file into the play field
+     *
+     * @return int[][] array which contains the play field
+     */
+    @Benchmark
+    public int[][] loadFromCSV() {
+        return presetManager.loadFromCSV(lines);
+    }
+}
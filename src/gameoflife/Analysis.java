@@ -1,6 +1,7 @@
 package gameoflife;
 
 import java.util.HashMap;
+import java.util.function.Consumer;
 
 /**
  * Analysis for analysing the cell states during a game cycle
@@ -9,11 +10,22 @@ import java.util.HashMap;
  */
 public class Analysis {
 
+    /**
+     * Receives the cells per generation, when the analysis GUI has to be updated;
+     * null without a GUI (the Analysis does not depend on JavaFX)
+     */
+    private static volatile Consumer<HashMap<Integer, Double[]>> analysisGui;
+
     /**
      * Store the amount of cells per generation
      */
     private final HashMap<Integer, Double[]> cellsPerGen = new HashMap<>();
 
+    /**
+     * Newest stored generation
+     */
+    private int newestGeneration;
+
 
     /**
      * Constructor: set the first element of the cellsPerGen Map
@@ -40,18 +52,68 @@ public class Analysis {
      * @param livingCells amount of currently living cells
      */
     public void addCellCount(int generation, int livingCells) {
-        // If the amount of saved generations is higher than the generation that has to be add
-        // -> remove every generation after the added generation
-        if (cellsPerGen.size() > generation + 1) {
-            int cellsPerGenMapSize = cellsPerGen.size();
-            for (int i = generation + 1; i < cellsPerGenMapSize; i++) {
-                cellsPerGen.remove(i);
+        AnalysisEvent event = AnalysisEvent.TYPE.isEnabled() ? new AnalysisEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        if (generation == 0) {
+            addCellCount(generation, livingCells, Double.NaN);
+        } else {
+            addCellCount(generation, livingCells, cellsPerGen.get(generation - 1)[0]);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.generation = generation;
+                event.population = livingCells;
+                event.storedGenerations = cellsPerGen.size();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Add the amount of living cells for a generation,
+     * which has been reached by skipping the generations in between (e.g. HashLife jump).
+     * The change is computed to the last stored generation before.
+     *
+     * @param generation  that corresponds to the amount of living cells
+     * @param livingCells amount of currently living cells
+     */
+    public void addSkippedCellCount(int generation, int livingCells) {
+        int lastGeneration = -1;
+        for (int storedGeneration : cellsPerGen.keySet()) {
+            if (storedGeneration < generation) {
+                lastGeneration = Math.max(lastGeneration, storedGeneration);
             }
         }
 
+        if (lastGeneration < 0) {
+            addCellCount(generation, livingCells, Double.NaN);
+        } else {
+            addCellCount(generation, livingCells, cellsPerGen.get(lastGeneration)[0]);
+        }
+    }
+
+    /**
+     * Store the amount of living cells and the change to the last value
+     *
+     * @param generation  that corresponds to the amount of living cells
+     * @param livingCells amount of currently living cells
+     * @param lastValue   amount of living cells of the previous stored generation;
+     *                    NaN if there is no previous generation
+     */
+    private void addCellCount(int generation, int livingCells, double lastValue) {
+        // If there are saved generations after the generation that has to be add
+        // -> remove every generation after the added generation
+        if (newestGeneration > generation) {
+            cellsPerGen.keySet().removeIf(storedGeneration -> storedGeneration > generation);
+        }
+        newestGeneration = generation;
+
         double valueChange;
         double percentValueChange;
-        if (generation == 0) {
+        if (Double.isNaN(lastValue)) {
             valueChange = livingCells;
 
             // If nothing has changed from the previous field
@@ -62,7 +124,6 @@ public class Analysis {
                 percentValueChange = 1;
             }
         } else {
-            double lastValue = cellsPerGen.get(generation - 1)[0];
             valueChange = livingCells - lastValue;
 
             if (lastValue == 0) {
@@ -91,13 +152,23 @@ public class Analysis {
     }
 
 
+    /**
+     * Set the receiver of the updates for the analysis GUI
+     *
+     * @param analysisGui receives the cells per generation; null = no GUI
+     */
+    static void setAnalysisGui(Consumer<HashMap<Integer, Double[]>> analysisGui) {
+        Analysis.analysisGui = analysisGui;
+    }
+
     /**
      * Update the analysis GUI
      * if the analysis window is showing
      */
     public void updateAnalysisGui() {
-        if (AnalysisGui.isShowing()) {
-            AnalysisGui.update(cellsPerGen);
+        Consumer<HashMap<Integer, Double[]>> gui = analysisGui;
+        if (gui != null) {
+            gui.accept(cellsPerGen);
         }
     }
 }
@@ -0,0 +1,46 @@
+package gameoflife;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a living cell count, which is added to the analysis
+ * (see Analysis.addCellCount).
+ * It is only created while it is recorded (see TYPE), so a step does not allocate otherwise.
+ *
+ * @author Richard Krikler
+ */
+@Name("gameoflife.AnalysisCellCount")
+@Label("Analysis Cell Count")
+@Category("Game Of Life")
+@Description("Amount of living cells of a generation, added to the analysis")
+@StackTrace(false)
+final class AnalysisEvent extends Event {
+    /**
+     * Type of the event; enabled while a recording of the event is running
+     */
+    static final EventType TYPE = EventType.getEventType(AnalysisEvent.class);
+
+    /**
+     * Generation of the cell count
+     */
+    @Label("Generation")
+    int generation;
+
+    /**
+     * Amount of living cells of the generation
+     */
+    @Label("Population")
+    int population;
+
+    /**
+     * Amount of stored generations after the cell count has been added
+     */
+    @Label("Stored Generations")
+    int storedGenerations;
+}
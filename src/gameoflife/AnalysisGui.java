@@ -387,8 +387,11 @@ public class AnalysisGui {
      */
     static void update(HashMap<Integer, Double[]> cellsPerGen) {
         Platform.runLater(() -> {
+            long startTime = System.nanoTime();
+
             // Update Analysis Data Grid
-            generationNumLabel.setText(String.valueOf(cellsPerGen.size() - 1));
+            generationNumLabel.setText(String.valueOf(
+                    cellsPerGen.keySet().stream().mapToInt(Integer::intValue).max().orElse(0)));
             minCellsNumLabel.setText(
                     DF2.format((cellsPerGen.values().stream()
                             .mapToDouble(v -> v[0]).min())
@@ -429,6 +432,8 @@ public class AnalysisGui {
             for (Node n : changePercentPerGenBC.lookupAll(".default-color0.chart-bar")) {
                 n.setStyle("-fx-bar-fill: #4472c4;");
             }
+
+            Gui.playField.getMetrics().recordAnalysisUpdate(System.nanoTime() - startTime);
         });
     }
 }
@@ -0,0 +1,487 @@
+package gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed grid engine for the Game Of Life
+ * - 64 cells are stored per long (bit x % 64 of word x / 64 contains the cell x)
+ * - the next generation is computed word-parallel with bit-sliced neighbour adders
+ * - the grid is divided into tiles (1 word x 64 rows); only tiles, which have changed
+ *   in the last generation or touch such a tile, are computed again
+ *
+ * @author Richard Krikler
+ */
+public class BitGrid implements GridEngine {
+    /**
+     * Amount of cells stored in one word
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * Highest amount of living neighbours in the Moore neighbourhood
+     */
+    private static final int MAX_NEIGHBOURS = 8;
+
+    /**
+     * Amount of rows of a tile (a tile is one word wide)
+     */
+    private static final int TILE_ROWS = 64;
+
+    /**
+     * x dimension of the grid
+     */
+    private int dimensionX;
+
+    /**
+     * y dimension of the grid
+     */
+    private int dimensionY;
+
+    /**
+     * Amount of words per row
+     */
+    private int wordsPerRow;
+
+    /**
+     * Mask of the valid cells in the last word of a row
+     */
+    private long lastWordMask;
+
+    /**
+     * Words of the current generation, row after row
+     */
+    private long[] cells;
+
+    /**
+     * Words of the next generation, swapped with cells after every step
+     */
+    private long[] nextCells;
+
+    /**
+     * Amount of tiles per row of tiles (= words per row)
+     */
+    private int tilesX;
+
+    /**
+     * Amount of rows of tiles
+     */
+    private int tilesY;
+
+    /**
+     * True for every tile, which has changed in the last generation (or has been edited)
+     */
+    private boolean[] tileChanged;
+
+    /**
+     * Changed flags of the tiles in the generation, which is computed
+     */
+    private boolean[] nextTileChanged;
+
+    /**
+     * Amount of tiles computed in the last generation
+     */
+    private int updatedTiles;
+
+    /**
+     * Amount of living cells, updated by every step and every edited cell
+     */
+    private int livingCells;
+
+    /**
+     * Zobrist hash of the living cells, updated for every cell, which changes its state
+     */
+    private long hash;
+
+    /**
+     * Game rules of the last step; if the rules change, every tile has to be computed again
+     */
+    private Rule lastRule;
+
+
+    /**
+     * BitGrid Constructor
+     *
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     */
+    public BitGrid(int dimensionX, int dimensionY) {
+        setSize(dimensionX, dimensionY);
+    }
+
+
+    @Override
+    public void setSize(int dimensionX, int dimensionY) {
+        this.dimensionX = dimensionX;
+        this.dimensionY = dimensionY;
+        wordsPerRow = (dimensionX + WORD_BITS - 1) / WORD_BITS;
+
+        int usedBits = dimensionX % WORD_BITS;
+        lastWordMask = usedBits == 0 ? -1L : (1L << usedBits) - 1;
+
+        cells = new long[wordsPerRow * dimensionY];
+        nextCells = new long[wordsPerRow * dimensionY];
+
+        tilesX = wordsPerRow;
+        tilesY = (dimensionY + TILE_ROWS - 1) / TILE_ROWS;
+        tileChanged = new boolean[tilesX * tilesY];
+        nextTileChanged = new boolean[tilesX * tilesY];
+        // Every tile has to be computed in the next generation
+        Arrays.fill(tileChanged, true);
+        livingCells = 0;
+        hash = 0L;
+    }
+
+    @Override
+    public int getDimensionX() {
+        return dimensionX;
+    }
+
+    @Override
+    public int getDimensionY() {
+        return dimensionY;
+    }
+
+
+    @Override
+    public int getCell(int posX, int posY) {
+        checkBounds(posX, posY);
+        return (int) ((cells[posY * wordsPerRow + posX / WORD_BITS] >>> posX) & 1L);
+    }
+
+    @Override
+    public void setCell(int posX, int posY, int value) {
+        checkBounds(posX, posY);
+        int index = posY * wordsPerRow + posX / WORD_BITS;
+        long word = cells[index];
+        if (value == 1) {
+            cells[index] |= 1L << posX;
+        } else {
+            cells[index] &= ~(1L << posX);
+        }
+
+        if (cells[index] != word) {
+            livingCells += Long.bitCount(cells[index]) - Long.bitCount(word);
+            hash ^= Zobrist.key(posX, posY);
+            tileChanged[(posY / TILE_ROWS) * tilesX + posX / WORD_BITS] = true;
+        }
+    }
+
+    /**
+     * Throw an ArrayIndexOutOfBoundsException (like the int array would do)
+     * if the position is not within the grid
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     */
+    private void checkBounds(int posX, int posY) {
+        if (posX < 0 || posX >= dimensionX) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Index " + posX + " out of bounds for length " + dimensionX);
+        }
+        if (posY < 0 || posY >= dimensionY) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Index " + posY + " out of bounds for length " + dimensionY);
+        }
+    }
+
+
+    @Override
+    public void load(int[][] playField) {
+        setSize(playField.length > 0 ? playField[0].length : 0, playField.length);
+
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                if (playField[y][x] == 1) {
+                    cells[y * wordsPerRow + x / WORD_BITS] |= 1L << x;
+                    hash ^= Zobrist.key(x, y);
+                }
+            }
+        }
+
+        livingCells = 0;
+        for (long word : cells) {
+            livingCells += Long.bitCount(word);
+        }
+    }
+
+    @Override
+    public int[][] toArray() {
+        int[][] playField = new int[dimensionY][dimensionX];
+
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                playField[y][x] = (int) ((cells[y * wordsPerRow + x / WORD_BITS] >>> x) & 1L);
+            }
+        }
+
+        return playField;
+    }
+
+    @Override
+    public long[] toBits() {
+        long[] bits = new long[(int) (((long) dimensionX * dimensionY + WORD_BITS - 1) / WORD_BITS)];
+
+        for (int y = 0; y < dimensionY; y++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                int x = word * WORD_BITS;
+                GenerationHistory.packWord(bits, (long) y * dimensionX + x, cells[y * wordsPerRow + word],
+                        Math.min(WORD_BITS, dimensionX - x));
+            }
+        }
+
+        return bits;
+    }
+
+    @Override
+    public int countLiving() {
+        return livingCells;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return true;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the amount of tiles (1 word x 64 rows), which have been computed in the last generation
+     *
+     * @return amount of computed tiles
+     */
+    public int getUpdatedTiles() {
+        return updatedTiles;
+    }
+
+    /**
+     * Get the amount of tiles (1 word x 64 rows) of the grid
+     *
+     * @return amount of tiles
+     */
+    public int getTileCount() {
+        return tilesX * tilesY;
+    }
+
+
+    @Override
+    public boolean step(Rule rule) {
+        if (rule.getRadius() > 1) {
+            throw new IllegalArgumentException("Larger than Life rules are only supported by the int array");
+        }
+        int reanimateMask = rule.getReanimateMask();
+        int keepLifeMask = rule.getKeepLifeMask();
+        if (!rule.equals(lastRule)) {
+            Arrays.fill(tileChanged, true);
+            lastRule = rule;
+        }
+
+        boolean changed = false;
+        int livingChange = 0;
+        long hashDelta = 0L;
+        updatedTiles = 0;
+
+        for (int tileY = 0; tileY < tilesY; tileY++) {
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                int tile = tileY * tilesX + tileX;
+                nextTileChanged[tile] = false;
+
+                // A tile, which has not changed and does not touch a changed tile, stays the same.
+                // The next buffer still contains the generation before, which is equal.
+                if (!isActive(tileX, tileY)) {
+                    continue;
+                }
+                updatedTiles++;
+
+                int yTo = Math.min((tileY + 1) * TILE_ROWS, dimensionY);
+                for (int y = tileY * TILE_ROWS; y < yTo; y++) {
+                    int row = y * wordsPerRow;
+                    // -1 marks a row outside of the grid (all cells dead)
+                    int rowAbove = y > 0 ? row - wordsPerRow : -1;
+                    int rowBelow = y + 1 < dimensionY ? row + wordsPerRow : -1;
+                    int i = tileX;
+
+                    long next = nextWord(
+                            word(rowAbove, i - 1), word(rowAbove, i), word(rowAbove, i + 1),
+                            word(row, i - 1), word(row, i), word(row, i + 1),
+                            word(rowBelow, i - 1), word(rowBelow, i), word(rowBelow, i + 1),
+                            reanimateMask, keepLifeMask);
+
+                    if (i == wordsPerRow - 1) {
+                        next &= lastWordMask;
+                    }
+
+                    long current = cells[row + i];
+                    nextCells[row + i] = next;
+                    if (next != current) {
+                        nextTileChanged[tile] = true;
+                        livingChange += Long.bitCount(next) - Long.bitCount(current);
+                        hashDelta ^= hashDelta(next ^ current, i * WORD_BITS, y);
+                    }
+                }
+                changed |= nextTileChanged[tile];
+            }
+        }
+
+        boolean[] swapTiles = tileChanged;
+        tileChanged = nextTileChanged;
+        nextTileChanged = swapTiles;
+
+        if (changed) {
+            long[] swap = cells;
+            cells = nextCells;
+            nextCells = swap;
+            livingCells += livingChange;
+            hash ^= hashDelta;
+        }
+        return changed;
+    }
+
+    /**
+     * Get the XOR of the Zobrist keys of the changed cells of a word
+     *
+     * @param changedBits bits of the changed cells
+     * @param posX        x position of the first cell of the word
+     * @param posY        y position of the word
+     * @return XOR of the keys
+     */
+    static long hashDelta(long changedBits, int posX, int posY) {
+        long hashDelta = 0L;
+        while (changedBits != 0L) {
+            hashDelta ^= Zobrist.key(posX + Long.numberOfTrailingZeros(changedBits), posY);
+            changedBits &= changedBits - 1;
+        }
+        return hashDelta;
+    }
+
+    /**
+     * Check if a tile has to be computed
+     * (it has changed in the last generation or touches a tile, which has changed)
+     *
+     * @param tileX x position of the tile
+     * @param tileY y position of the tile
+     * @return true if the tile has to be computed
+     */
+    private boolean isActive(int tileX, int tileY) {
+        for (int y = Math.max(tileY - 1, 0); y <= Math.min(tileY + 1, tilesY - 1); y++) {
+            for (int x = Math.max(tileX - 1, 0); x <= Math.min(tileX + 1, tilesX - 1); x++) {
+                if (tileChanged[y * tilesX + x]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a word of the current generation; words outside of the grid are empty
+     *
+     * @param row  index of the first word of the row or -1 if the row is outside of the grid
+     * @param word index of the word within the row
+     * @return word containing 64 cells
+     */
+    private long word(int row, int word) {
+        if (row < 0 || word < 0 || word >= wordsPerRow) {
+            return 0L;
+        }
+        return cells[row + word];
+    }
+
+
+    /**
+     * Compute the next generation of 64 cells at once
+     * <p>
+     * Every row (above, current, below) is given by the word itself
+     * and the words on the left and on the right, which deliver the bits at the word borders.
+     *
+     * @param aboveLeft     word left of the word above
+     * @param above         word above
+     * @param aboveRight    word right of the word above
+     * @param left          word left of the current word
+     * @param current       current word
+     * @param right         word right of the current word
+     * @param belowLeft     word left of the word below
+     * @param below         word below
+     * @param belowRight    word right of the word below
+     * @param reanimateMask bit n is set if n living neighbours reanimate a dead cell
+     * @param keepLifeMask  bit n is set if n living neighbours keep a cell alive
+     * @return next generation of the current word
+     */
+    static long nextWord(long aboveLeft, long above, long aboveRight,
+                         long left, long current, long right,
+                         long belowLeft, long below, long belowRight,
+                         int reanimateMask, int keepLifeMask) {
+        // The 8 neighbours, shifted to the position of the cell
+        long n0 = (above << 1) | (aboveLeft >>> 63);
+        long n1 = above;
+        long n2 = (above >>> 1) | (aboveRight << 63);
+        long n3 = (current << 1) | (left >>> 63);
+        long n4 = (current >>> 1) | (right << 63);
+        long n5 = (below << 1) | (belowLeft >>> 63);
+        long n6 = below;
+        long n7 = (below >>> 1) | (belowRight << 63);
+
+        // Carry save adders: add the neighbours up to a 4 bit number per cell
+        long sumA = n0 ^ n1 ^ n2;
+        long carryA = (n0 & n1) | (n2 & (n0 ^ n1));
+        long sumB = n3 ^ n4 ^ n5;
+        long carryB = (n3 & n4) | (n5 & (n3 ^ n4));
+        long sumC = n6 ^ n7;
+        long carryC = n6 & n7;
+
+        long ones = sumA ^ sumB ^ sumC;
+        long carryOnes = (sumA & sumB) | (sumC & (sumA ^ sumB));
+
+        long twosA = carryA ^ carryB ^ carryC;
+        long carryTwosA = (carryA & carryB) | (carryC & (carryA ^ carryB));
+        long twos = twosA ^ carryOnes;
+        long carryTwosB = twosA & carryOnes;
+
+        long fours = carryTwosA ^ carryTwosB;
+        long eights = carryTwosA & carryTwosB;
+
+        return applyRule(ones, twos, fours, eights, current, reanimateMask, keepLifeMask);
+    }
+
+    /**
+     * Apply the game rules to 64 cells at once
+     *
+     * @param ones          bit 0 of the neighbour count of every cell
+     * @param twos          bit 1 of the neighbour count of every cell
+     * @param fours         bit 2 of the neighbour count of every cell
+     * @param eights        bit 3 of the neighbour count of every cell
+     * @param current       current state of the cells
+     * @param reanimateMask bit n is set if n living neighbours reanimate a dead cell
+     * @param keepLifeMask  bit n is set if n living neighbours keep a cell alive
+     * @return next state of the cells
+     */
+    static long applyRule(long ones, long twos, long fours, long eights, long current,
+                          int reanimateMask, int keepLifeMask) {
+        long next = 0L;
+
+        for (int count = 0; count <= MAX_NEIGHBOURS; count++) {
+            boolean reanimate = ((reanimateMask >>> count) & 1) != 0;
+            boolean keepLife = ((keepLifeMask >>> count) & 1) != 0;
+            if (!reanimate && !keepLife) {
+                continue;
+            }
+
+            // Cells, which have exactly "count" living neighbours
+            long matching = ((count & 1) != 0 ? ones : ~ones)
+                    & ((count & 2) != 0 ? twos : ~twos)
+                    & ((count & 4) != 0 ? fours : ~fours)
+                    & ((count & 8) != 0 ? eights : ~eights);
+
+            if (reanimate) {
+                next |= matching & ~current;
+            }
+            if (keepLife) {
+                next |= matching & current;
+            }
+        }
+
+        return next;
+    }
+}
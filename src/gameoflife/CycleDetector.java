@@ -0,0 +1,252 @@
+package gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * Detects if the play field has entered a cycle (still life, blinker, pulsar, ...)
+ * <p>
+ * The hash of every generation is stored in an index (hash -> generation), an open addressing table
+ * of primitive ints, so recording a generation does not create any objects.
+ * If the hash of a new generation is already in the index, the play field repeats
+ * the stored generation: the cycle starts there and its period is the distance between both.
+ * Only the hashes of the last generations (the window) are kept, so cycles with a longer period
+ * are not detected. Equal hashes of different play fields are possible, but very unlikely (64 bit).
+ *
+ * @author Richard Krikler
+ */
+public class CycleDetector {
+    /**
+     * Default amount of generations, which are kept in the index
+     */
+    public static final int DEFAULT_WINDOW = 1024;
+
+    /**
+     * Stored hashes in the order of the generations (ring buffer)
+     */
+    private final long[] hashes;
+
+    /**
+     * Generations of the stored hashes (same slots as the hashes)
+     */
+    private final int[] generations;
+
+    /**
+     * Index of the stored hashes (linear probing): slot of the hash in the ring buffer + 1; 0 = empty.
+     * It has at least twice as many slots as the ring buffer, so it is never full.
+     */
+    private final int[] index;
+
+    /**
+     * Amount of recorded generations since the last reset
+     */
+    private long recorded;
+
+    /**
+     * Newest recorded generation; -1 = none
+     */
+    private int lastGeneration = -1;
+
+    /**
+     * Generation, in which the cycle starts; -1 = no cycle detected
+     */
+    private int cycleStart = -1;
+
+    /**
+     * Period of the detected cycle; 0 = no cycle detected
+     */
+    private int period;
+
+    /**
+     * True if the detected cycle has been acknowledged (e.g. the user continues the game anyway)
+     */
+    private boolean acknowledged;
+
+
+    /**
+     * CycleDetector Constructor with the default window
+     */
+    public CycleDetector() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * CycleDetector Constructor
+     *
+     * @param window amount of generations, which are kept in the index (longest detected period)
+     */
+    public CycleDetector(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("The window has to be at least 1!");
+        }
+        hashes = new long[window];
+        generations = new int[window];
+        index = new int[Integer.highestOneBit(Math.max(1, window * 2 - 1)) << 1];
+    }
+
+
+    /**
+     * Record the hash of a generation and check if it has appeared before
+     *
+     * @param generation generation of the play field (greater than the last recorded generation)
+     * @param hash       hash of the play field
+     * @return true if a cycle is detected (now or before)
+     */
+    public boolean record(int generation, long hash) {
+        if (cycleStart >= 0) {
+            return true;
+        }
+
+        int found = find(hash);
+        if (found >= 0) {
+            cycleStart = generations[index[found] - 1];
+            period = generation - cycleStart;
+            return true;
+        }
+
+        // Drop the oldest hash, if the window is full
+        int slot = (int) (recorded % hashes.length);
+        if (recorded >= hashes.length) {
+            remove(find(hashes[slot]));
+        }
+        hashes[slot] = hash;
+        generations[slot] = generation;
+        insert(slot);
+        recorded++;
+        lastGeneration = generation;
+        return false;
+    }
+
+    /**
+     * Forget all recorded generations and the detected cycle (e.g. after the play field was edited)
+     */
+    public void reset() {
+        if (recorded == 0 && cycleStart < 0 && !acknowledged) {
+            return;
+        }
+        Arrays.fill(index, 0);
+        recorded = 0;
+        lastGeneration = -1;
+        cycleStart = -1;
+        period = 0;
+        acknowledged = false;
+    }
+
+    /**
+     * Acknowledge the detected cycle, so it does not stop the game again;
+     * the acknowledgement is dropped with the next reset
+     */
+    public void acknowledge() {
+        acknowledged = cycleStart >= 0;
+    }
+
+    /**
+     * Check if the detected cycle has been acknowledged
+     *
+     * @return true if a cycle has been detected and acknowledged
+     */
+    public boolean isAcknowledged() {
+        return acknowledged;
+    }
+
+    /**
+     * Get the newest recorded generation
+     *
+     * @return generation or -1 if nothing is recorded
+     */
+    public int getLastGeneration() {
+        return lastGeneration;
+    }
+
+    /**
+     * Check if a cycle has been detected
+     *
+     * @return true if the play field repeats a recorded generation
+     */
+    public boolean isCycleDetected() {
+        return cycleStart >= 0;
+    }
+
+    /**
+     * Get the generation, in which the cycle starts
+     *
+     * @return generation or -1 if no cycle has been detected
+     */
+    public int getCycleStart() {
+        return cycleStart;
+    }
+
+    /**
+     * Get the period of the detected cycle (1 = still life, 2 = e.g. blinker)
+     *
+     * @return period or 0 if no cycle has been detected
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+
+    /**
+     * Find the slot of a hash in the index
+     *
+     * @param hash hash of a play field
+     * @return slot of the index or -1 if the hash is not stored
+     */
+    private int find(long hash) {
+        int mask = index.length - 1;
+        for (int slot = home(hash, mask); index[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[index[slot] - 1] == hash) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a hash of the ring buffer to the index
+     *
+     * @param ringSlot slot of the hash in the ring buffer
+     */
+    private void insert(int ringSlot) {
+        int mask = index.length - 1;
+        int slot = home(hashes[ringSlot], mask);
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = ringSlot + 1;
+    }
+
+    /**
+     * Remove a slot from the index
+     *
+     * @param slot slot of the index; -1 = nothing to remove
+     */
+    private void remove(int slot) {
+        if (slot < 0) {
+            return;
+        }
+        int mask = index.length - 1;
+        // Shift the following entries of the probe sequence back into the free slot
+        int free = slot;
+        for (int next = (free + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+            int home = home(hashes[index[next] - 1], mask);
+            // Move the entry if its home slot is not between the free slot and the entry
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                index[free] = index[next];
+                free = next;
+            }
+        }
+        index[free] = 0;
+    }
+
+    /**
+     * Get the home slot of a hash in the index
+     *
+     * @param hash hash of a play field
+     * @param mask amount of slots - 1
+     * @return index of the home slot
+     */
+    private static int home(long hash, int mask) {
+        long mixed = hash * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
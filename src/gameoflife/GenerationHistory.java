@@ -0,0 +1,493 @@
+package gameoflife;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Store for the previous generations of the play field
+ * - every N generations a keyframe (all cells, packed into bits) is stored
+ * - in between only the positions of the changed cells (XOR to the stored generation before)
+ *   are stored, as variable length gaps
+ * - if the memory budget is exceeded, the oldest keyframe with its deltas is dropped
+ *
+ * @author Richard Krikler
+ */
+public class GenerationHistory {
+    /**
+     * Default amount of generations between two keyframes
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    /**
+     * Default memory budget in bytes (64 MiB)
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * Estimated bytes of a stored generation besides its data (objects, map entry)
+     */
+    private static final int FRAME_OVERHEAD = 96;
+
+    /**
+     * Amount of cells stored in one word of a keyframe
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * Stored generations, with the generation as key
+     */
+    private final TreeMap<Integer, Frame> frames = new TreeMap<>();
+
+    /**
+     * Amount of generations between two keyframes
+     */
+    private int keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+
+    /**
+     * Maximum amount of bytes used by the stored generations
+     */
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * Estimated amount of bytes used by the stored generations
+     */
+    private long usedBytes;
+
+    /**
+     * Packed cells of the newest stored generation (base for the next delta); null = none
+     */
+    private long[] lastBits;
+
+    /**
+     * Amount of deltas stored after the newest keyframe
+     */
+    private int deltasSinceKeyframe;
+
+
+    /**
+     * Set the amount of generations between two keyframes
+     * (more generations = less memory, but a longer way back)
+     *
+     * @param keyframeInterval amount of generations; at least 1
+     */
+    public void setKeyframeInterval(int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("The keyframe interval has to be at least 1!");
+        }
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Get the amount of generations between two keyframes
+     *
+     * @return amount of generations
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Set the maximum amount of bytes used by the stored generations.
+     * The oldest generations are dropped, until the history fits into the budget
+     * (the newest keyframe with its deltas is always kept).
+     *
+     * @param memoryBudget maximum amount of bytes
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        enforceBudget();
+    }
+
+    /**
+     * Get the maximum amount of bytes used by the stored generations
+     *
+     * @return maximum amount of bytes
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Get the estimated amount of bytes used by the stored generations
+     *
+     * @return amount of bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Get the amount of stored generations
+     *
+     * @return amount of generations
+     */
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * Get the amount of stored keyframes
+     *
+     * @return amount of keyframes
+     */
+    public int getKeyframeCount() {
+        int keyframes = 0;
+        for (Frame frame : frames.values()) {
+            if (frame.bits != null) {
+                keyframes++;
+            }
+        }
+        return keyframes;
+    }
+
+    /**
+     * Check if a generation is stored
+     *
+     * @param generation generation to check
+     * @return true if the generation can be restored
+     */
+    public boolean contains(int generation) {
+        return frames.containsKey(generation);
+    }
+
+
+    /**
+     * Store a generation; stored generations from this generation on are replaced
+     *
+     * @param generation generation of the play field
+     * @param playField  int[][] array which contains the play field (it is not changed)
+     */
+    public void put(int generation, int[][] playField) {
+        int dimensionY = playField.length;
+        int dimensionX = dimensionY > 0 ? playField[0].length : 0;
+        put(generation, dimensionX, dimensionY, pack(playField, dimensionX, dimensionY));
+    }
+
+    /**
+     * Store a generation, which is already packed into bits (see GridEngine.toBits);
+     * stored generations from this generation on are replaced
+     *
+     * @param generation generation of the play field
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @param bits       packed cells (cell x, y is bit y * dimensionX + x); they are kept, not copied
+     */
+    public void put(int generation, int dimensionX, int dimensionY, long[] bits) {
+        removeFrom(generation);
+
+        Frame frame = null;
+        if (lastBits != null && deltasSinceKeyframe + 1 < keyframeInterval) {
+            Frame last = frames.lastEntry().getValue();
+            if (last.dimensionX == dimensionX && last.dimensionY == dimensionY) {
+                byte[] delta = encodeDelta(lastBits, bits);
+                // A delta, which is larger than a keyframe, is not worth it
+                if (delta.length < bits.length * Long.BYTES) {
+                    frame = new Frame(dimensionX, dimensionY, null, delta);
+                    deltasSinceKeyframe++;
+                }
+            }
+        }
+        if (frame == null) {
+            frame = new Frame(dimensionX, dimensionY, bits, null);
+            deltasSinceKeyframe = 0;
+        }
+
+        frames.put(generation, frame);
+        usedBytes += frame.bytes();
+        lastBits = bits;
+        enforceBudget();
+    }
+
+    /**
+     * Restore a stored generation from the nearest keyframe before it
+     *
+     * @param generation generation to restore
+     * @return int[][] array which contains the play field or null if the generation is not stored
+     */
+    public int[][] get(int generation) {
+        Frame frame = frames.get(generation);
+        if (frame == null) {
+            return null;
+        }
+        return unpack(restoreBits(generation), frame.dimensionX, frame.dimensionY);
+    }
+
+    /**
+     * Remove all stored generations from a generation on
+     *
+     * @param generation first generation, which is removed
+     */
+    public void removeFrom(int generation) {
+        Map<Integer, Frame> removed = frames.tailMap(generation, true);
+        if (removed.isEmpty()) {
+            return;
+        }
+        for (Frame frame : removed.values()) {
+            usedBytes -= frame.bytes();
+        }
+        removed.clear();
+
+        // The newest remaining generation is the base for the next delta
+        if (frames.isEmpty()) {
+            lastBits = null;
+            deltasSinceKeyframe = 0;
+        } else {
+            lastBits = restoreBits(frames.lastKey());
+            deltasSinceKeyframe = 0;
+            for (Frame frame : frames.descendingMap().values()) {
+                if (frame.bits != null) {
+                    break;
+                }
+                deltasSinceKeyframe++;
+            }
+        }
+    }
+
+    /**
+     * Remove all stored generations
+     */
+    public void clear() {
+        frames.clear();
+        usedBytes = 0;
+        lastBits = null;
+        deltasSinceKeyframe = 0;
+    }
+
+
+    /**
+     * Drop the oldest keyframes with their deltas, until the used bytes fit into the budget
+     */
+    private void enforceBudget() {
+        while (usedBytes > memoryBudget && !frames.isEmpty()) {
+            // Find the end of the oldest segment (the next keyframe)
+            Integer nextKeyframe = null;
+            for (Map.Entry<Integer, Frame> entry : frames.tailMap(frames.firstKey(), false).entrySet()) {
+                if (entry.getValue().bits != null) {
+                    nextKeyframe = entry.getKey();
+                    break;
+                }
+            }
+            // The newest segment is always kept
+            if (nextKeyframe == null) {
+                return;
+            }
+
+            Map<Integer, Frame> dropped = frames.headMap(nextKeyframe, false);
+            for (Frame frame : dropped.values()) {
+                usedBytes -= frame.bytes();
+            }
+            dropped.clear();
+        }
+    }
+
+    /**
+     * Restore the packed cells of a stored generation
+     *
+     * @param generation stored generation
+     * @return packed cells
+     */
+    private long[] restoreBits(int generation) {
+        // Go back to the nearest keyframe and apply the deltas after it
+        List<byte[]> deltas = new ArrayList<>();
+        long[] keyframe = null;
+        for (Frame frame : frames.headMap(generation, true).descendingMap().values()) {
+            if (frame.bits != null) {
+                keyframe = frame.bits;
+                break;
+            }
+            deltas.add(frame.delta);
+        }
+
+        long[] bits = keyframe.clone();
+        for (int i = deltas.size() - 1; i >= 0; i--) {
+            applyDelta(bits, deltas.get(i));
+        }
+        return bits;
+    }
+
+
+    /**
+     * Pack the cells of a play field into bits (cell x, y is bit y * dimensionX + x)
+     *
+     * @param playField  int[][] array which contains the play field
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @return packed cells
+     */
+    private static long[] pack(int[][] playField, int dimensionX, int dimensionY) {
+        long[] bits = new long[(int) (((long) dimensionX * dimensionY + WORD_BITS - 1) / WORD_BITS)];
+        int index = 0;
+        for (int y = 0; y < dimensionY; y++) {
+            int[] row = playField[y];
+            for (int x = 0; x < dimensionX; x++, index++) {
+                if (row[x] == 1) {
+                    bits[index / WORD_BITS] |= 1L << index;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Write a word of cells into packed cells
+     *
+     * @param bits   packed cells
+     * @param index  index of the bit of the first cell
+     * @param word   cells (the lowest bit is the first cell)
+     * @param length amount of cells of the word, which are written (1 to 64)
+     */
+    static void packWord(long[] bits, long index, long word, int length) {
+        if (length < WORD_BITS) {
+            word &= (1L << length) - 1;
+        }
+        if (word == 0L) {
+            return;
+        }
+        int wordIndex = (int) (index / WORD_BITS);
+        int shift = (int) (index % WORD_BITS);
+        bits[wordIndex] |= word << shift;
+        // The rest of the word goes into the next word
+        if (shift != 0 && shift + length > WORD_BITS) {
+            bits[wordIndex + 1] |= word >>> (WORD_BITS - shift);
+        }
+    }
+
+    /**
+     * Unpack the cells of a play field
+     *
+     * @param bits       packed cells
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @return int[][] array which contains the play field
+     */
+    private static int[][] unpack(long[] bits, int dimensionX, int dimensionY) {
+        int[][] playField = new int[dimensionY][dimensionX];
+        int index = 0;
+        for (int y = 0; y < dimensionY; y++) {
+            int[] row = playField[y];
+            for (int x = 0; x < dimensionX; x++, index++) {
+                row[x] = (int) ((bits[index / WORD_BITS] >>> index) & 1L);
+            }
+        }
+        return playField;
+    }
+
+    /**
+     * Encode the positions of the changed cells as gaps to the changed cell before
+     * (7 bits per byte, the highest bit marks that another byte follows)
+     *
+     * @param before packed cells of the generation before
+     * @param after  packed cells of the generation
+     * @return encoded delta
+     */
+    private static byte[] encodeDelta(long[] before, long[] after) {
+        byte[] delta = new byte[16];
+        int length = 0;
+        long lastPosition = -1;
+
+        for (int word = 0; word < after.length; word++) {
+            long changed = before[word] ^ after[word];
+            while (changed != 0L) {
+                long position = (long) word * WORD_BITS + Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+
+                long gap = position - lastPosition;
+                lastPosition = position;
+                while (true) {
+                    if (length + 1 > delta.length) {
+                        byte[] grown = new byte[delta.length * 2];
+                        System.arraycopy(delta, 0, grown, 0, length);
+                        delta = grown;
+                    }
+                    if (gap < 0x80) {
+                        delta[length++] = (byte) gap;
+                        break;
+                    }
+                    delta[length++] = (byte) ((gap & 0x7F) | 0x80);
+                    gap >>>= 7;
+                }
+            }
+        }
+
+        byte[] trimmed = new byte[length];
+        System.arraycopy(delta, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    /**
+     * Flip the changed cells of a delta
+     *
+     * @param bits  packed cells, which are changed
+     * @param delta encoded delta
+     */
+    private static void applyDelta(long[] bits, byte[] delta) {
+        long position = -1;
+        int index = 0;
+        while (index < delta.length) {
+            long gap = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = delta[index++];
+                gap |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+
+            position += gap;
+            bits[(int) (position / WORD_BITS)] ^= 1L << position;
+        }
+    }
+
+
+    /**
+     * Stored generation: either a keyframe (bits) or a delta to the stored generation before
+     */
+    private static final class Frame {
+        /**
+         * x dimension of the play field
+         */
+        private final int dimensionX;
+
+        /**
+         * y dimension of the play field
+         */
+        private final int dimensionY;
+
+        /**
+         * Packed cells of a keyframe; null for a delta
+         */
+        private final long[] bits;
+
+        /**
+         * Encoded changed cells of a delta; null for a keyframe
+         */
+        private final byte[] delta;
+
+
+        /**
+         * Frame Constructor
+         *
+         * @param dimensionX x dimension of the play field
+         * @param dimensionY y dimension of the play field
+         * @param bits       packed cells of a keyframe; null for a delta
+         * @param delta      encoded changed cells of a delta; null for a keyframe
+         */
+        private Frame(int dimensionX, int dimensionY, long[] bits, byte[] delta) {
+            this.dimensionX = dimensionX;
+            this.dimensionY = dimensionY;
+            this.bits = bits;
+            this.delta = delta;
+        }
+
+        /**
+         * Get the estimated amount of bytes used by the frame
+         *
+         * @return amount of bytes
+         */
+        private long bytes() {
+            return FRAME_OVERHEAD + (bits != null ? (long) bits.length * Long.BYTES : delta.length);
+        }
+    }
+}
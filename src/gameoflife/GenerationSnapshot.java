@@ -0,0 +1,102 @@
+package gameoflife;
+
+/**
+ * Immutable copy of a generation of the play field
+ * <p>
+ * The snapshot is created by the thread, which steps the play field, and can be read
+ * by any other thread (e.g. the JavaFX thread for drawing), while the play field is stepped on.
+ *
+ * @author Richard Krikler
+ */
+public final class GenerationSnapshot {
+    /**
+     * Cells of the generation (never changed after the construction)
+     */
+    private final int[][] cells;
+
+    /**
+     * Generation of the snapshot
+     */
+    private final int generation;
+
+    /**
+     * Amount of living cells of the generation
+     */
+    private final int livingCells;
+
+
+    /**
+     * GenerationSnapshot Constructor; the cells are not copied,
+     * so the array must not be changed afterwards
+     *
+     * @param cells       int[][] array which contains the play field
+     * @param generation  generation of the snapshot
+     * @param livingCells amount of living cells
+     */
+    GenerationSnapshot(int[][] cells, int generation, int livingCells) {
+        this.cells = cells;
+        this.generation = generation;
+        this.livingCells = livingCells;
+    }
+
+
+    /**
+     * Get the value of a specific cell
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     * @return 1 = alive; 0 = dead
+     */
+    public int getCell(int posX, int posY) {
+        return cells[posY][posX];
+    }
+
+    /**
+     * Get the x dimension of the snapshot
+     *
+     * @return amount of columns
+     */
+    public int getDimensionX() {
+        return cells.length == 0 ? 0 : cells[0].length;
+    }
+
+    /**
+     * Get the y dimension of the snapshot
+     *
+     * @return amount of rows
+     */
+    public int getDimensionY() {
+        return cells.length;
+    }
+
+    /**
+     * Get the generation of the snapshot
+     *
+     * @return generation
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the amount of living cells of the generation
+     *
+     * @return amount of living cells
+     */
+    public int getLivingCells() {
+        return livingCells;
+    }
+
+    /**
+     * Get a copy of the cells
+     *
+     * @return int[][] array which contains the play field
+     */
+    public int[][] toArray() {
+        int[][] copy = new int[cells.length][];
+        for (int y = 0; y < cells.length; y++) {
+            copy[y] = cells[y].clone();
+        }
+        return copy;
+    }
+}
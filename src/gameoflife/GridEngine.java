@@ -0,0 +1,169 @@
+package gameoflife;
+
+import java.nio.file.Path;
+
+/**
+ * Storage and stepping engine, which can replace the int array of the PlayField
+ *
+ * @author Richard Krikler
+ */
+public interface GridEngine {
+
+    /**
+     * Override the grid with a new empty grid, with new dimensions.
+     *
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     */
+    void setSize(int dimensionX, int dimensionY);
+
+    /**
+     * Get the x dimension of the grid
+     *
+     * @return x dimension
+     */
+    int getDimensionX();
+
+    /**
+     * Get the y dimension of the grid
+     *
+     * @return y dimension
+     */
+    int getDimensionY();
+
+    /**
+     * Get the stored value of a specific cell.
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     * @return cell value; 1 = alive, 0 = dead
+     */
+    int getCell(int posX, int posY);
+
+    /**
+     * Set value of a specific cell.
+     *
+     * @param posX  x position of the cell
+     * @param posY  y position of the cell
+     * @param value of the cell; 1 = alive, 0 = dead
+     */
+    void setCell(int posX, int posY, int value);
+
+    /**
+     * Replace the grid with the content (and the dimensions) of an int array
+     *
+     * @param playField int[][] array which contains the play field
+     */
+    void load(int[][] playField);
+
+    /**
+     * Copy the grid into a new int array (on the heap, also for an off-heap engine)
+     *
+     * @return int[][] array which contains the play field
+     */
+    int[][] toArray();
+
+    /**
+     * Pack the grid into bits (cell x, y is bit y * dimensionX + x), e.g. to store it in the GenerationHistory
+     * without copying it into an int array.
+     * The packed cells are on the heap, also for an off-heap engine (one bit per cell).
+     *
+     * @return packed cells
+     */
+    default long[] toBits() {
+        int dimensionX = getDimensionX();
+        int dimensionY = getDimensionY();
+        long[] bits = new long[(int) (((long) dimensionX * dimensionY + Long.SIZE - 1) / Long.SIZE)];
+        long index = 0;
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++, index++) {
+                if (getCell(x, y) == 1) {
+                    bits[(int) (index / Long.SIZE)] |= 1L << index;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Count the living cells of the grid
+     *
+     * @return amount of living cells
+     */
+    int countLiving();
+
+    /**
+     * Get the Zobrist hash of the grid (XOR of the Zobrist keys of all living cells)
+     *
+     * @return 64 bit hash
+     */
+    long getHash();
+
+    /**
+     * Check if the grid ends at its dimensions (cells outside of the grid are dead)
+     *
+     * @return true if the grid is bounded; false if the plane is unbounded
+     */
+    boolean isBounded();
+
+    /**
+     * Check if the engine can step a rule, before the game is started (see step)
+     *
+     * @param rule game rules
+     * @return true if the rule is supported; by default every rule with a radius of 1
+     */
+    default boolean supports(Rule rule) {
+        return rule.getRadius() <= 1;
+    }
+
+    /**
+     * Get the grid to the next generation
+     *
+     * @param rule game rules
+     * @return true if at least one cell has changed
+     * @throws IllegalArgumentException if the engine does not support the rule (see supports)
+     */
+    boolean step(Rule rule);
+
+
+    /**
+     * Create a grid engine, which stores the cells outside of the Java heap (OffHeapGrid).
+     * It is loaded by name: the OffHeapGrid is in the optional source folder src-jdk21,
+     * because the Foreign Function &amp; Memory API is a preview API in JDK 21
+     * (compiled with --release 21 --enable-preview); the src folder itself compiles with JDK 17.
+     * <p>
+     * The generations stored for stepping back are copied onto the heap;
+     * enable the double buffered mode of the PlayField for a grid, which does not fit into the heap.
+     *
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     * @return grid engine, which has to be closed (AutoCloseable), or null if the OffHeapGrid is not available
+     */
+    static GridEngine createOffHeap(int dimensionX, int dimensionY) {
+        try {
+            return (GridEngine) Class.forName("gameoflife.OffHeapGrid")
+                    .getDeclaredConstructor(int.class, int.class).newInstance(dimensionX, dimensionY);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a grid engine, which stores the cells in a memory mapped file (MappedGrid).
+     * It is loaded by name, like the OffHeapGrid (see createOffHeap).
+     *
+     * @param file       file, which receives the grid; an existing file is overwritten
+     * @param dimensionX x dimension of the grid
+     * @param dimensionY y dimension of the grid
+     * @return grid engine, which has to be closed (AutoCloseable), or null if the MappedGrid is not available
+     */
+    static GridEngine createMapped(Path file, int dimensionX, int dimensionY) {
+        try {
+            return (GridEngine) Class.forName("gameoflife.MappedGrid")
+                    .getDeclaredConstructor(Path.class, int.class, int.class)
+                    .newInstance(file, dimensionX, dimensionY);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
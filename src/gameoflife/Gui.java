@@ -1,7 +1,10 @@
 package gameoflife;
 
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
-import javafx.application.Platform;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
@@ -26,7 +29,9 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
+import java.util.HashMap;
 import java.util.concurrent.ScheduledExecutorService;
 
 
@@ -84,6 +89,22 @@ public class Gui extends Application {
      */
     static boolean stopIfMinimized;
 
+    /**
+     * Boolean value, which is true if the game should stop
+     * when the play field has entered a cycle (e.g. only blinkers are left)
+     * <p>
+     * The value is equals to the checkbox value (pauseOnCycleCB)
+     */
+    static boolean pauseOnCycle;
+
+    /**
+     * Boolean value, which is true if the game should run as fast as possible
+     * (the game speed is ignored, only the latest generation is drawn at the refresh rate of the display)
+     * <p>
+     * The value is equals to the checkbox value (unlimitedSpeedCB)
+     */
+    static boolean unlimitedSpeed;
+
     /**
      * Store the path to the folder, which contains the presets
      */
@@ -94,6 +115,12 @@ public class Gui extends Application {
      */
     static PlayField playField;
 
+    /**
+     * Handoff of the play field between the simulation thread and the JavaFX thread
+     * (snapshots for drawing, queued edits of the user)
+     */
+    static final SnapshotHandoff handoff = new SnapshotHandoff();
+
     /**
      * Store the preset manager (logic for the use of presets) inside the PresetManager Object
      */
@@ -128,7 +155,18 @@ public class Gui extends Application {
         playField.setGameSpeed(1);
         playField.setReanimateRule(3);
         playField.setKeepLifeRule(2, 3);
+        // Large play fields are stepped in bands of rows on all cores
+        playField.setParallelism(Runtime.getRuntime().availableProcessors());
         stopIfMinimized = true;
+        pauseOnCycle = false;
+
+        // ------------------ Analysis GUI ------------------
+        // The analysis is changed by the simulation thread, the window gets a copy
+        Analysis.setAnalysisGui(cellsPerGen -> {
+            if (AnalysisGui.isShowing()) {
+                AnalysisGui.update(new HashMap<>(cellsPerGen));
+            }
+        });
 
         // ------------------ PresetManager ------------------
         presetManager = new PresetManager(stage, PRESET_PATH);
@@ -323,6 +361,11 @@ public class Gui extends Application {
         GridPane.setHalignment(setSpeedBt, HPos.CENTER);
         settingsGrid.add(setSpeedBt, 1, 10);
 
+        CheckBox unlimitedSpeedCB = new CheckBox("Max");
+        unlimitedSpeedCB.setTooltip(new Tooltip("Unlimited speed: run the game as fast as possible"));
+        unlimitedSpeedCB.setSelected(unlimitedSpeed);
+        settingsGrid.add(unlimitedSpeedCB, 2, 10);
+
 
         // Change Game Rules
         Label gameRulesLabel = new Label("Game Rules:");
@@ -403,6 +446,97 @@ public class Gui extends Application {
         settingsGrid.add(stopIfMinimizedCB, 2, 20);
 
 
+        // Unbounded play field (cells outside of the visible part live on)
+        Label unboundedLabel = new Label("Unbounded play field:");
+        unboundedLabel.setTooltip(
+                new Tooltip("Cells, which leave the play field, live on and can come back."));
+        settingsGrid.add(unboundedLabel, 0, 21);
+        GridPane.setColumnSpan(unboundedLabel, 3);
+
+        CheckBox unboundedCB = new CheckBox();
+        GridPane.setHalignment(unboundedCB, HPos.CENTER);
+        settingsGrid.add(unboundedCB, 2, 21);
+
+
+        // Topology of the play field (neighbours of the cells at the border)
+        Label topologyLabel = new Label("Topology:");
+        topologyLabel.setTooltip(
+                new Tooltip("Connect the borders of the play field (Torus, Klein bottle)."));
+        settingsGrid.add(topologyLabel, 0, 22);
+
+        ComboBox<Topology> topologyBox = new ComboBox<>();
+        topologyBox.getItems().addAll(Topology.values());
+        topologyBox.setValue(playField.getTopology());
+        settingsGrid.add(topologyBox, 1, 22);
+        GridPane.setColumnSpan(topologyBox, 2);
+
+
+        // Stop game if the play field repeats itself
+        Label pauseOnCycleLabel = new Label("Stop game on cycles:");
+        pauseOnCycleLabel.setTooltip(
+                new Tooltip("Stop the game if the play field repeats a previous generation."));
+        settingsGrid.add(pauseOnCycleLabel, 0, 23);
+        GridPane.setColumnSpan(pauseOnCycleLabel, 3);
+
+        CheckBox pauseOnCycleCB = new CheckBox();
+        pauseOnCycleCB.setSelected(pauseOnCycle);
+        GridPane.setHalignment(pauseOnCycleCB, HPos.CENTER);
+        settingsGrid.add(pauseOnCycleCB, 2, 23);
+
+
+        // Performance metrics (throughput and durations of the running game)
+        Label performanceLabel = new Label("Performance:");
+        settingsGrid.add(performanceLabel, 0, 24);
+        GridPane.setColumnSpan(performanceLabel, 2);
+
+        Button resetMetricsBt = new Button("Reset");
+        resetMetricsBt.setTooltip(new Tooltip("Reset the performance metrics"));
+        GridPane.setHalignment(resetMetricsBt, HPos.CENTER);
+        settingsGrid.add(resetMetricsBt, 2, 24);
+
+        Label gensPerSecLabel = new Label("Gen/s:");
+        gensPerSecLabel.setTooltip(new Tooltip("Generations per second"));
+        settingsGrid.add(gensPerSecLabel, 0, 25);
+
+        Label gensPerSecNumLabel = new Label();
+        settingsGrid.add(gensPerSecNumLabel, 1, 25);
+        GridPane.setColumnSpan(gensPerSecNumLabel, 2);
+
+        Label cellsPerSecLabel = new Label("Cells/s:");
+        cellsPerSecLabel.setTooltip(new Tooltip("Cell updates per second"));
+        settingsGrid.add(cellsPerSecLabel, 0, 26);
+
+        Label cellsPerSecNumLabel = new Label();
+        settingsGrid.add(cellsPerSecNumLabel, 1, 26);
+        GridPane.setColumnSpan(cellsPerSecNumLabel, 2);
+
+        Label stepTimeLabel = new Label("Step:");
+        stepTimeLabel.setTooltip(new Tooltip("Duration of a step (median / 99th percentile)"));
+        settingsGrid.add(stepTimeLabel, 0, 27);
+
+        Label stepTimeNumLabel = new Label();
+        settingsGrid.add(stepTimeNumLabel, 1, 27);
+        GridPane.setColumnSpan(stepTimeNumLabel, 2);
+
+        Label renderTimeLabel = new Label("Render:");
+        renderTimeLabel.setTooltip(
+                new Tooltip("Duration of drawing the play field (median / 99th percentile)"));
+        settingsGrid.add(renderTimeLabel, 0, 28);
+
+        Label renderTimeNumLabel = new Label();
+        settingsGrid.add(renderTimeNumLabel, 1, 28);
+        GridPane.setColumnSpan(renderTimeNumLabel, 2);
+
+        Label analysisTimeLabel = new Label("Analysis:");
+        analysisTimeLabel.setTooltip(
+                new Tooltip("Duration of an analysis update (median / 99th percentile)"));
+        settingsGrid.add(analysisTimeLabel, 0, 29);
+
+        Label analysisTimeNumLabel = new Label();
+        settingsGrid.add(analysisTimeNumLabel, 1, 29);
+        GridPane.setColumnSpan(analysisTimeNumLabel, 2);
+
+
         settingsGrid.setHgap(10);
         settingsGrid.setVgap(10);
         settingsGrid.setPadding(new Insets(10));
@@ -443,17 +577,37 @@ public class Gui extends Application {
         // Runnable, which is periodically called from the ScheduledExecutorService,
         // to get the play field to the next generation
         Runnable runGame = () -> {
-            if (playField.stepForward()) {
-                // Updating GUI elements can only be done in the Application thread
-                Platform.runLater(() -> {
-                    GuiLogic.drawPlayField();
-                    curGenNumLabel.setText(Integer.toString(playField.getGeneration()));
-                    curLivingNumLabel.setText(Integer.toString(playField.getLivingCells()));
-                });
-            } else {
-                GuiLogic.pauseGame(executor);
+            try {
+                // Edits of the user (e.g. changed cells) are applied before the step
+                handoff.applyEdits(playField);
+                if (playField.stepForward()) {
+                    // Adds the generation to the analysis
+                    playField.getLivingCells();
+                    // The snapshot is drawn by the render timer
+                    handoff.publish(playField);
+
+                    // Only oscillators are left (cycle with a period of 2 or more)
+                    if (pauseOnCycle && playField.isNewCycleDetected()) {
+                        GuiLogic.pauseGame(executor);
+                    }
+                } else {
+                    GuiLogic.pauseGame(executor);
+                }
+            } catch (RuntimeException e) {
+                // Otherwise the executor cancels the game silently and never gives back the play field
+                GuiLogic.stopOnFailure(executor, e);
+            }
+        };
+
+        // Draw the latest generation once per frame (at the refresh rate of the display),
+        // independent of the speed of the game
+        AnimationTimer renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                GuiLogic.drawLatestFrame(curGenNumLabel, curLivingNumLabel);
             }
         };
+        renderTimer.start();
 
         // Start the game -> initialise ScheduledExecutorService
         playBt.setOnAction(
@@ -491,6 +645,14 @@ public class Gui extends Application {
         setSpeedBt.setOnAction(
                 e -> GuiLogic.setSpeed(speedTf));
 
+        // Change the value of unlimitedSpeed
+        // to the value of the according CheckBox (unlimitedSpeedCB) and pause the game
+        unlimitedSpeedCB.selectedProperty().addListener(
+                e -> {
+                    GuiLogic.pauseGame(executor);
+                    unlimitedSpeed = unlimitedSpeedCB.isSelected();
+                });
+
         // Change the game rules of the play field to the values of the text fields
         gameRulesBt.setOnAction(
                 e -> GuiLogic.setGameRules(reanimateRuleTf, keepLifeRuleTf));
@@ -522,7 +684,7 @@ public class Gui extends Application {
         analysisBt.setOnAction(
                 e -> {
                     AnalysisGui.show();
-                    playField.updateAnalysisGui();
+                    GuiLogic.editPlayField(PlayField::updateAnalysisGui);
                 });
 
 
@@ -541,12 +703,41 @@ public class Gui extends Application {
         stopIfMinimizedCB.selectedProperty().addListener(
                 e -> stopIfMinimized = stopIfMinimizedCB.selectedProperty().getValue());
 
+        // Change the value of pauseOnCycle
+        // to the value of the according CheckBox (pauseOnCycleCB)
+        pauseOnCycleCB.selectedProperty().addListener(
+                e -> pauseOnCycle = pauseOnCycleCB.selectedProperty().getValue());
+
+        // Switch between the bounded and the unbounded play field
+        unboundedCB.selectedProperty().addListener(
+                e -> GuiLogic.setUnbounded(unboundedCB, curLivingNumLabel));
+
+        // Change the topology of the play field
+        topologyBox.valueProperty().addListener(
+                e -> {
+                    Topology topology = topologyBox.getValue();
+                    GuiLogic.editPlayField(field -> field.setTopology(topology));
+                });
+
         // Detect if the main window has been minimized into the taskbar
         // If it has and the stopIfMinimized is true -> pause the game
         stage.iconifiedProperty().addListener(
                 (ov, t, t1) -> GuiLogic.stopGameIfMinimized(t1, stopIfMinimized, executor));
 
 
+        // Update the performance metrics once per second
+        Timeline performanceTimeline = new Timeline(new KeyFrame(Duration.seconds(1),
+                e -> GuiLogic.updatePerformance(
+                        gensPerSecNumLabel, cellsPerSecNumLabel,
+                        stepTimeNumLabel, renderTimeNumLabel, analysisTimeNumLabel)));
+        performanceTimeline.setCycleCount(Animation.INDEFINITE);
+        performanceTimeline.play();
+
+        // Reset the performance metrics
+        resetMetricsBt.setOnAction(
+                e -> playField.getMetrics().reset());
+
+
         // Close the Analysis window when the Main window is closed
         stage.setOnCloseRequest(
                 e -> AnalysisGui.close());
@@ -1,6 +1,8 @@
 package gameoflife;
 
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
@@ -9,9 +11,11 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
+import java.util.Locale;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 /**
@@ -35,7 +39,7 @@ public class GuiLogic {
     /**
      * RegExp Pattern for the game rule input text field
      */
-    private static final Pattern GAME_RULE_PAT = Pattern.compile("^([0-8],)*[0-8]$");
+    private static final Pattern GAME_RULE_PAT = Pattern.compile("^(\\d{1,4},)*\\d{1,4}$");
 
 
     /**
@@ -43,13 +47,49 @@ public class GuiLogic {
      */
     private static final int THOUSAND_MS = 1000;
 
+    /**
+     * Maximum time in seconds to wait for the last step of the simulation thread, when the game is paused
+     */
+    private static final int LAST_STEP_TIMEOUT_S = 60;
+
+    /**
+     * Target duration of a batch of generations in the unlimited speed mode (about half a frame),
+     * so edits and pausing take effect within a frame
+     */
+    private static final long UNLIMITED_BATCH_NANOS = 8_000_000L;
+
+    /**
+     * Largest batch of generations in the unlimited speed mode
+     */
+    private static final int UNLIMITED_MAX_BATCH = 1 << 16;
+
+    /**
+     * Snapshot, which has been drawn last (only used by the JavaFX thread)
+     */
+    private static GenerationSnapshot lastDrawnSnapshot;
+
 
     /**
      * Draw the current Play Field to the Canvas of the Gui
+     * <p>
+     * The latest snapshot of the play field is drawn, so the simulation thread is never blocked
+     * and a half computed generation is never drawn.
+     * While the game is paused, the JavaFX thread owns the play field and publishes the snapshot itself.
      */
     static void drawPlayField() {
-        Gui.gameCanvas.setWidth(Gui.playField.getDimensionX() * Gui.sizePerCell);
-        Gui.gameCanvas.setHeight(Gui.playField.getDimensionY() * Gui.sizePerCell);
+        RenderEvent event = RenderEvent.TYPE.isEnabled() ? new RenderEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long startTime = System.nanoTime();
+        if (!isGameRunning()) {
+            Gui.handoff.publish(Gui.playField);
+        }
+        GenerationSnapshot snapshot = Gui.handoff.getLatest();
+        lastDrawnSnapshot = snapshot;
+
+        Gui.gameCanvas.setWidth(snapshot.getDimensionX() * Gui.sizePerCell);
+        Gui.gameCanvas.setHeight(snapshot.getDimensionY() * Gui.sizePerCell);
 
         double canvasW = Gui.gameCanvas.getWidth();
         double canvasH = Gui.gameCanvas.getHeight();
@@ -57,9 +97,9 @@ public class GuiLogic {
         Gui.gc.clearRect(0, 0, canvasW, canvasH);
 
         // Draw Cells
-        for (int y = 0; y < Gui.playField.getDimensionY(); y++) {
-            for (int x = 0; x < Gui.playField.getDimensionX(); x++) {
-                if (Gui.playField.getCell(x, y) == 1) {
+        for (int y = 0; y < snapshot.getDimensionY(); y++) {
+            for (int x = 0; x < snapshot.getDimensionX(); x++) {
+                if (snapshot.getCell(x, y) == 1) {
                     Gui.gc.setFill(Color.web("98E35B"));
                     Gui.gc.fillRect(
                             x * Gui.sizePerCell,
@@ -71,13 +111,53 @@ public class GuiLogic {
         }
 
         // Draw Grid
-        for (int x = 0; x <= Gui.playField.getDimensionX(); x++) {
+        for (int x = 0; x <= snapshot.getDimensionX(); x++) {
             Gui.gc.strokeLine(x * Gui.sizePerCell, 0, x * Gui.sizePerCell, canvasH);
         }
 
-        for (int y = 0; y <= Gui.playField.getDimensionY(); y++) {
+        for (int y = 0; y <= snapshot.getDimensionY(); y++) {
             Gui.gc.strokeLine(0, y * Gui.sizePerCell, canvasW, y * Gui.sizePerCell);
         }
+
+        Gui.playField.getMetrics().recordRender(System.nanoTime() - startTime);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.dimensionX = snapshot.getDimensionX();
+                event.dimensionY = snapshot.getDimensionY();
+                event.generation = snapshot.getGeneration();
+                event.population = snapshot.getLivingCells();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Draw the latest snapshot, if it has not been drawn yet (called once per frame by the render timer);
+     * generations, which have been published in between, are skipped
+     *
+     * @param curGenNumLabel    label for displaying the current generation
+     * @param curLivingNumLabel label for displaying the current amount of living cells
+     */
+    static void drawLatestFrame(Label curGenNumLabel, Label curLivingNumLabel) {
+        if (Gui.handoff.getLatest() != lastDrawnSnapshot) {
+            showSnapshot(curGenNumLabel, curLivingNumLabel);
+        }
+        // The simulation thread copies the play field again, after the snapshot has been drawn
+        Gui.handoff.requestSnapshot();
+    }
+
+    /**
+     * Draw the latest snapshot of the play field and show its generation and living cells
+     *
+     * @param curGenNumLabel    label for displaying the current generation
+     * @param curLivingNumLabel label for displaying the current amount of living cells
+     */
+    static void showSnapshot(Label curGenNumLabel, Label curLivingNumLabel) {
+        drawPlayField();
+        GenerationSnapshot snapshot = Gui.handoff.getLatest();
+        curGenNumLabel.setText(Integer.toString(snapshot.getGeneration()));
+        curLivingNumLabel.setText(Integer.toString(snapshot.getLivingCells()));
     }
 
     /**
@@ -106,6 +186,68 @@ public class GuiLogic {
     static void pauseGame(ScheduledExecutorService executor) {
         if (executor != null) {
             executor.shutdown();
+
+            // The JavaFX thread takes over the play field after the last step of the simulation thread
+            // (the simulation thread itself does not wait for its own step)
+            if (Platform.isFxApplicationThread()) {
+                try {
+                    executor.awaitTermination(LAST_STEP_TIMEOUT_S, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // Edits, which have been queued after the last step
+                Gui.handoff.applyEdits(Gui.playField);
+            }
+        }
+    }
+
+    /**
+     * Stop the game after a step has failed (called by the simulation thread):
+     * the last generation is drawn, the JavaFX thread takes over the play field and displays the error
+     *
+     * @param executor executor service, which runs the game
+     * @param e        exception of the failed step
+     */
+    static void stopOnFailure(ScheduledExecutorService executor, RuntimeException e) {
+        executor.shutdown();
+        Gui.handoff.publish(Gui.playField);
+        Platform.runLater(() -> {
+            // Waits for the end of the game and applies the queued edits
+            pauseGame(executor);
+            errorDialog(Gui.stage,
+                    "Game Error",
+                    "The game has been stopped, because a generation could not be computed!",
+                    String.valueOf(e.getMessage()));
+        });
+    }
+
+    /**
+     * Check if the simulation thread owns the play field
+     * (the game is running or its last step has not finished yet)
+     *
+     * @return true if the play field must only be changed by queued edits
+     */
+    static boolean isGameRunning() {
+        ScheduledExecutorService executor = Gui.executor;
+        return executor != null && !executor.isTerminated();
+    }
+
+    /**
+     * Change the play field: while the game is running, the edit is queued
+     * and applied by the simulation thread before its next step,
+     * otherwise it is applied at once
+     *
+     * @param edit changes the play field
+     */
+    static void editPlayField(Consumer<PlayField> edit) {
+        Gui.handoff.queueEdit(edit);
+
+        // The game has paused itself, but its last step may not have finished
+        if (Gui.executor != null && Gui.executor.isShutdown()) {
+            pauseGame(Gui.executor);
+        }
+        if (!isGameRunning()) {
+            Gui.handoff.applyEdits(Gui.playField);
         }
     }
 
@@ -201,12 +343,87 @@ public class GuiLogic {
      *                to get the play field to the next generation
      */
     static void playGame(Runnable runGame) {
-        Gui.executor = Executors.newScheduledThreadPool(1);
-        Gui.executor.scheduleAtFixedRate(
-                runGame,
-                0,
-                (long) (Gui.playField.getGameSpeed() * THOUSAND_MS),
-                TimeUnit.MILLISECONDS);
+        // A cycle, on which the game has stopped, does not stop it again
+        Gui.playField.acknowledgeCycle();
+
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+        Gui.executor = executor;
+        if (Gui.unlimitedSpeed) {
+            executor.execute(() -> runUnlimited(executor));
+        } else {
+            executor.scheduleAtFixedRate(
+                    runGame,
+                    0,
+                    (long) (Gui.playField.getGameSpeed() * THOUSAND_MS),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Run the game as fast as possible, until it is paused (unlimited speed mode)
+     * <p>
+     * The generations are advanced in batches of about half a frame; every generation is added to the analysis,
+     * but a snapshot is only published (and the analysis GUI only updated),
+     * when the render timer has drawn the previous one.
+     *
+     * @param executor executor service, which runs the game; the game stops, when it is shut down
+     */
+    private static void runUnlimited(ScheduledExecutorService executor) {
+        int batch = 1;
+        try {
+            while (!executor.isShutdown()) {
+                // Edits of the user (e.g. changed cells) are applied before the batch
+                Gui.handoff.applyEdits(Gui.playField);
+
+                long startTime = System.nanoTime();
+                int advanced = Gui.playField.advance(batch);
+                long duration = System.nanoTime() - startTime;
+                // The analysis GUI is updated together with the snapshot, at most once per drawn frame
+                // (it copies the whole analysis)
+                if (Gui.handoff.publishIfRequested(Gui.playField)) {
+                    Gui.playField.updateAnalysisGui();
+                }
+
+                // The play field does not change anymore or only oscillators are left
+                if (advanced < batch || (Gui.pauseOnCycle && Gui.playField.isNewCycleDetected())) {
+                    pauseGame(executor);
+                }
+
+                if (duration < UNLIMITED_BATCH_NANOS / 2 && batch < UNLIMITED_MAX_BATCH) {
+                    batch *= 2;
+                } else if (duration > UNLIMITED_BATCH_NANOS && batch > 1) {
+                    batch /= 2;
+                }
+            }
+        } catch (RuntimeException e) {
+            stopOnFailure(executor, e);
+        } finally {
+            // The JavaFX thread takes over the play field, even if a step has failed
+            executor.shutdown();
+            // The last generation is always drawn
+            Gui.handoff.publish(Gui.playField);
+            Gui.playField.updateAnalysisGui();
+        }
+    }
+
+    /**
+     * Show the current performance metrics of the play field
+     *
+     * @param gensPerSecNumLabel   label for displaying the generations per second
+     * @param cellsPerSecNumLabel  label for displaying the cell updates per second
+     * @param stepTimeNumLabel     label for displaying the duration of a step
+     * @param renderTimeNumLabel   label for displaying the duration of drawing the play field
+     * @param analysisTimeNumLabel label for displaying the duration of an analysis update
+     */
+    static void updatePerformance(Label gensPerSecNumLabel, Label cellsPerSecNumLabel,
+                                  Label stepTimeNumLabel, Label renderTimeNumLabel,
+                                  Label analysisTimeNumLabel) {
+        PerformanceMetrics metrics = Gui.playField.getMetrics();
+        gensPerSecNumLabel.setText(String.format(Locale.ROOT, "%.1f", metrics.getGenerationsPerSecond()));
+        cellsPerSecNumLabel.setText(String.format(Locale.ROOT, "%.3g", metrics.getCellsPerSecond()));
+        stepTimeNumLabel.setText(PerformanceMetrics.formatPercentiles(metrics.getStepTimes()));
+        renderTimeNumLabel.setText(PerformanceMetrics.formatPercentiles(metrics.getRenderTimes()));
+        analysisTimeNumLabel.setText(PerformanceMetrics.formatPercentiles(metrics.getAnalysisTimes()));
     }
 
     /**
@@ -216,12 +433,13 @@ public class GuiLogic {
      * @param curLivingNumLabel label for displaying the current amount of living cells
      */
     static void stepBack(Label curGenNumLabel, Label curLivingNumLabel) {
-        if (Gui.playField.stepTo(Gui.playField.getGeneration() - 1)) {
-            drawPlayField();
-            curGenNumLabel.setText(Integer.toString(Gui.playField.getGeneration()));
-            curLivingNumLabel.setText(Integer.toString(Gui.playField.getLivingCells()));
-            Gui.playField.updateAnalysisGui();
-        }
+        editPlayField(playField -> {
+            if (playField.stepTo(playField.getGeneration() - 1)) {
+                // Adds the generation to the analysis and updates the analysis GUI
+                playField.getLivingCells();
+            }
+        });
+        showSnapshot(curGenNumLabel, curLivingNumLabel);
     }
 
     /**
@@ -231,11 +449,12 @@ public class GuiLogic {
      * @param curLivingNumLabel label for displaying the current amount of living cells
      */
     static void stepForward(Label curGenNumLabel, Label curLivingNumLabel) {
-        if (Gui.playField.stepForward()) {
-            GuiLogic.drawPlayField();
-            curGenNumLabel.setText(Integer.toString(Gui.playField.getGeneration()));
-            curLivingNumLabel.setText(Integer.toString(Gui.playField.getLivingCells()));
-        }
+        editPlayField(playField -> {
+            if (playField.stepForward()) {
+                playField.getLivingCells();
+            }
+        });
+        showSnapshot(curGenNumLabel, curLivingNumLabel);
     }
 
     /**
@@ -252,11 +471,15 @@ public class GuiLogic {
 
         if (validGen) {
             // If generation is valid -> go to the generation x
-            if (Gui.playField.stepTo(Integer.parseInt(gen))) {
-                GuiLogic.drawPlayField();
-                curGenNumLabel.setText(Integer.toString(Gui.playField.getGeneration()));
-                curLivingNumLabel.setText(Integer.toString(Gui.playField.getLivingCells()));
-                goToTf.setText(Integer.toString(Gui.playField.getGeneration()));
+            int generation = Integer.parseInt(gen);
+            editPlayField(playField -> {
+                if (playField.stepTo(generation)) {
+                    playField.getLivingCells();
+                }
+            });
+            showSnapshot(curGenNumLabel, curLivingNumLabel);
+            if (!isGameRunning()) {
+                goToTf.setText(curGenNumLabel.getText());
             }
         } else {
             // If generation is invalid -> Display Error Message
@@ -333,12 +556,30 @@ public class GuiLogic {
         String reanimateRule = reanimateRuleTf.getText();
         String keepLifeRule = keepLifeRuleTf.getText();
 
-        boolean validReanimateRule = GAME_RULE_PAT.matcher(reanimateRule).matches();
-        boolean validKeepLifeRule = GAME_RULE_PAT.matcher(keepLifeRule).matches();
+        // A rule in the standard rule notation (e.g. "B3/S23")
+        // or in the Larger than Life notation (e.g. "R5,B34-45,S33-57") sets both game rules at once
+        if (Rule.isValid(reanimateRule)) {
+            Rule rule = Rule.parse(reanimateRule);
+            if (!isRuleSupported(Gui.playField.getEngine(), rule)) {
+                reanimateRuleTf.setText(Gui.playField.getReanimateRule());
+                return;
+            }
+            editPlayField(playField -> playField.setRule(rule));
+            reanimateRuleTf.setText(rule.getReanimateRule());
+            keepLifeRuleTf.setText(rule.getKeepLifeRule());
+            return;
+        }
+
+        int maxNeighbours = Gui.playField.getRule().getMaxNeighbours();
+        boolean validReanimateRule = isValidGameRule(reanimateRule, maxNeighbours);
+        boolean validKeepLifeRule = isValidGameRule(keepLifeRule, maxNeighbours);
 
         String errorExplanation =
-                "The rule is valid if it contains one or more integers (from 0 to 8), "
-                        + "separated with a comma (\",\").";
+                "The rule is valid if it contains one or more integers (from 0 to " + maxNeighbours + "), "
+                        + "separated with a comma (\",\"). "
+                        + "Both rules can also be entered as Reanimate Rule "
+                        + "in the standard notation (e.g. \"B3/S23\") "
+                        + "or in the Larger than Life notation (e.g. \"R5,B34-45,S33-57\").";
 
         // If Reanimate Rule is invalid -> Display Error Message
         if (!validReanimateRule) {
@@ -359,10 +600,59 @@ public class GuiLogic {
         }
 
         // If both inputs are valid -> set the game rules to the input values
+        // (if the grid engine can step them, e.g. no B0 on the unbounded play field)
         if (validReanimateRule & validKeepLifeRule) {
-            Gui.playField.setReanimateRule(reanimateRule);
-            Gui.playField.setKeepLifeRule(keepLifeRule);
+            Rule rule = Gui.playField.getRule()
+                    .withReanimateRule(Rule.parseCounts(reanimateRule))
+                    .withKeepLifeRule(Rule.parseCounts(keepLifeRule));
+            if (!isRuleSupported(Gui.playField.getEngine(), rule)) {
+                reanimateRuleTf.setText(Gui.playField.getReanimateRule());
+                keepLifeRuleTf.setText(Gui.playField.getKeepLifeRule());
+                return;
+            }
+            editPlayField(playField -> {
+                playField.setReanimateRule(reanimateRule);
+                playField.setKeepLifeRule(keepLifeRule);
+            });
+        }
+    }
+
+    /**
+     * Check if a grid engine can step the game rules; otherwise display an error message
+     *
+     * @param engine grid engine of the play field; null for the int array, which supports every rule
+     * @param rule   game rules
+     * @return true if the rules can be used
+     */
+    private static boolean isRuleSupported(GridEngine engine, Rule rule) {
+        if (engine == null || engine.supports(rule)) {
+            return true;
+        }
+        errorDialog(Gui.stage,
+                "Input Error",
+                "The rule (\"" + rule + "\") can not be used on the unbounded play field!",
+                "Larger than Life rules (with a radius larger than 1) and rules, which reanimate cells "
+                        + "without living neighbours (B0), are only supported by the bounded play field.");
+        return false;
+    }
+
+    /**
+     * Check if the input of a game rule text field is valid
+     *
+     * @param gameRule      input String, integers separated via ","
+     * @param maxNeighbours largest valid integer (amount of neighbours of a cell)
+     * @return true if the input is valid
+     */
+    private static boolean isValidGameRule(String gameRule, int maxNeighbours) {
+        if (!GAME_RULE_PAT.matcher(gameRule).matches()) {
+            return false;
+        }
+        for (int cellsNeeded : stringArToIntAr(gameRule.split(","))) {
+            if (cellsNeeded > maxNeighbours) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
@@ -406,7 +696,11 @@ public class GuiLogic {
      * @param presetBox combo box for the presets in the preset folder
      */
     static void savePreset(ComboBox<String> presetBox) {
-        if (Gui.presetManager.savePreset(Gui.playField)) {
+        // The latest snapshot is saved, the simulation thread may step the play field in the meantime
+        drawPlayField();
+        PlayField savedPlayField = new PlayField(0, 0);
+        savedPlayField.setPlayField(Gui.handoff.getLatest().toArray());
+        if (Gui.presetManager.savePreset(savedPlayField)) {
             presetBox.setItems(Gui.presetManager.getObservableList());
         }
     }
@@ -417,9 +711,12 @@ public class GuiLogic {
      * @param curLivingNumLabel label for displaying the current amount of living cells
      */
     static void placeRandomly(Label curLivingNumLabel) {
-        Gui.playField.placeRandomly();
+        editPlayField(playField -> {
+            playField.placeRandomly();
+            playField.getLivingCells();
+        });
         drawPlayField();
-        curLivingNumLabel.setText(Integer.toString(Gui.playField.getLivingCells()));
+        curLivingNumLabel.setText(Integer.toString(Gui.handoff.getLatest().getLivingCells()));
     }
 
     /**
@@ -445,19 +742,46 @@ public class GuiLogic {
         int posY = (int) (e.getY() / Gui.sizePerCell);
 
         // If the positions are within the size of the play field
-        if (posX < Gui.playField.getDimensionX() && posY < Gui.playField.getDimensionY()) {
-            // If it is a living cell -> dead
-            if (Gui.playField.getCell(posX, posY) == 1) {
-                Gui.playField.setCell(posX, posY, 0);
-            } else {
-                Gui.playField.setCell(posX, posY, 1);
-            }
+        // If it is a living cell -> dead; otherwise -> alive (in the generation, to which the edit is applied)
+        GenerationSnapshot snapshot = Gui.handoff.getLatest();
+        if (posX < snapshot.getDimensionX() && posY < snapshot.getDimensionY()) {
+            editPlayField(playField -> {
+                playField.setCell(posX, posY, 1 - playField.getCell(posX, posY));
+                playField.getLivingCells();
+            });
         }
 
         drawPlayField();
-        curLivingNumLabel.setText(Integer.toString(Gui.playField.getLivingCells()));
+        curLivingNumLabel.setText(Integer.toString(Gui.handoff.getLatest().getLivingCells()));
     }
 
+    /**
+     * Switch between the bounded play field and the unbounded play field
+     * (cells outside of the visible part live on)
+     *
+     * @param unboundedCB       checkbox, which is selected for the unbounded play field;
+     *                          it is deselected again, if the game rules can not be used on the unbounded play field
+     * @param curLivingNumLabel label, which contains the current amount of living cells
+     */
+    static void setUnbounded(CheckBox unboundedCB, Label curLivingNumLabel) {
+        boolean unbounded = unboundedCB.isSelected();
+        if (unbounded && !isRuleSupported(new SparseGrid(0, 0), Gui.playField.getRule())) {
+            unboundedCB.setSelected(false);
+            return;
+        }
+        editPlayField(playField -> {
+            if (unbounded) {
+                playField.setEngine(new SparseGrid(playField.getDimensionX(), playField.getDimensionY()));
+            } else {
+                playField.setEngine(null);
+            }
+            playField.getLivingCells();
+        });
+        drawPlayField();
+        curLivingNumLabel.setText(Integer.toString(Gui.handoff.getLatest().getLivingCells()));
+    }
+
+
     /**
      * Pause the game if the window is minimized and if stopIfMinimized is true
      *
@@ -0,0 +1,638 @@
+package gameoflife;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * HashLife engine (memoized quadtree) for fast-forwarding the play field
+ * <p>
+ * The play field is stored as a quadtree of canonical nodes, equal sub patterns share one node.
+ * The future of every node is memoized, so regular patterns can be advanced
+ * exponentially far with a few lookups.
+ * <p>
+ * HashLife computes an unbounded plane, while the play field has dead borders.
+ * That is why a jump is never longer than the distance between the living cells and the border:
+ * the pattern can not grow faster than one cell per generation,
+ * so it never touches the border during the jump and both results are the same.
+ *
+ * @author Richard Krikler
+ */
+public class HashLife {
+    /**
+     * Default maximum amount of stored nodes, before the memo cache is dropped
+     */
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    /**
+     * Level of the smallest node, which can be advanced (4x4 cells)
+     */
+    private static final int BASE_LEVEL = 2;
+
+    /**
+     * Game rules used to advance the nodes
+     */
+    private final Rule rule;
+
+    /**
+     * Maximum amount of stored nodes, before the memo cache is dropped
+     */
+    private final int maxNodes;
+
+    /**
+     * Canonical nodes; every node exists only once
+     */
+    private HashMap<Node, Node> nodes = new HashMap<>();
+
+    /**
+     * Empty nodes per level
+     */
+    private Node[] emptyNodes = new Node[0];
+
+    /**
+     * Id for the next created node (used for the hash codes)
+     */
+    private long nextId;
+
+    /**
+     * Leaf for a dead cell
+     */
+    private final Node dead;
+
+    /**
+     * Leaf for a living cell
+     */
+    private final Node alive;
+
+
+    /**
+     * HashLife Constructor
+     *
+     * @param rule     game rules; a rule reanimating cells without living neighbours is not supported
+     * @param maxNodes maximum amount of stored nodes, before the memo cache is dropped
+     */
+    public HashLife(Rule rule, int maxNodes) {
+        if (!isSupported(rule)) {
+            throw new IllegalArgumentException("HashLife does not support the rule " + rule + "!");
+        }
+        this.rule = rule;
+        this.maxNodes = maxNodes;
+        dead = new Node(0, null, null, null, null, 0, nextId++);
+        alive = new Node(0, null, null, null, null, 1, nextId++);
+    }
+
+    /**
+     * Check if a rule can be computed by HashLife
+     * (empty space has to stay empty; a cell without living neighbours must not be reanimated;
+     * only the Moore neighbourhood)
+     *
+     * @param rule game rules
+     * @return true if the rule is supported
+     */
+    public static boolean isSupported(Rule rule) {
+        return rule.getRadius() == 1 && rule.nextState(0, 0) == 0;
+    }
+
+    /**
+     * Get the game rules used to advance the nodes
+     *
+     * @return game rules
+     */
+    public Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * Get the amount of currently stored nodes
+     *
+     * @return amount of nodes in the memo cache
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Drop all stored nodes and memoized results (e.g. under memory pressure)
+     */
+    public void clear() {
+        nodes = new HashMap<>();
+        emptyNodes = new Node[0];
+    }
+
+
+    /**
+     * Advance a play field by a number of generations.
+     * <p>
+     * The jump stops earlier if the living cells come too close to the border of the play field,
+     * the remaining generations have to be computed by the normal stepping.
+     *
+     * @param playField   int[][] array which contains the play field; it is overwritten with the result
+     * @param generations number of generations to advance
+     * @return number of generations, which have been advanced
+     */
+    public long advance(int[][] playField, long generations) {
+        int dimensionY = playField.length;
+        int dimensionX = dimensionY > 0 ? playField[0].length : 0;
+
+        int level = BASE_LEVEL;
+        while ((1L << level) < Math.max(dimensionX, dimensionY)) {
+            level++;
+        }
+
+        Node root = fromArray(playField, level, 0, 0);
+        // Position of the upper left corner of the root in the play field
+        long originX = 0;
+        long originY = 0;
+        long advanced = 0;
+
+        while (advanced < generations && root.population > 0) {
+            long[] bounds = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE};
+            findBounds(root, originX, originY, bounds);
+
+            // Distance between the living cells and the border of the play field
+            long margin = Math.min(Math.min(bounds[0], bounds[1]),
+                    Math.min(dimensionX - 1 - bounds[2], dimensionY - 1 - bounds[3]));
+            long jump = Long.highestOneBit(Math.min(margin, generations - advanced));
+            if (jump < 1) {
+                break;
+            }
+            int jumpLevel = Long.numberOfTrailingZeros(jump);
+
+            // The result is the center half of the root, the cells can move up to 2^jumpLevel cells:
+            // the pattern has to be in the center quarter (edge length) of a root with
+            // a level of at least jumpLevel + 3, so no cell can leave the result
+            while (root.level < jumpLevel + BASE_LEVEL + 1 || !isCentered(root)) {
+                long half = 1L << (root.level - 1);
+                originX -= half;
+                originY -= half;
+                root = expand(root);
+            }
+
+            long quarter = 1L << (root.level - 2);
+            originX += quarter;
+            originY += quarter;
+            root = successor(root, jumpLevel);
+            advanced += jump;
+
+            if (nodes.size() > maxNodes) {
+                collectGarbage(root);
+            }
+        }
+
+        // If every cell is dead, the play field stays empty forever
+        if (root.population == 0) {
+            advanced = generations;
+        }
+
+        for (int[] row : playField) {
+            Arrays.fill(row, 0);
+        }
+        writeToArray(root, playField, originX, originY);
+
+        return advanced;
+    }
+
+
+    /**
+     * Get the canonical node for four children
+     *
+     * @param nw north west child
+     * @param ne north east child
+     * @param sw south west child
+     * @param se south east child
+     * @return canonical node
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+        Node node = new Node(nw.level + 1, nw, ne, sw, se,
+                nw.population + ne.population + sw.population + se.population, nextId);
+        Node canonical = nodes.putIfAbsent(node, node);
+        if (canonical != null) {
+            return canonical;
+        }
+        nextId++;
+        return node;
+    }
+
+    /**
+     * Get the empty node of a level
+     *
+     * @param level level of the node (2^level x 2^level cells)
+     * @return empty node
+     */
+    private Node empty(int level) {
+        if (level >= emptyNodes.length) {
+            Node[] newEmptyNodes = new Node[level + 1];
+            System.arraycopy(emptyNodes, 0, newEmptyNodes, 0, emptyNodes.length);
+            emptyNodes = newEmptyNodes;
+        }
+        if (emptyNodes[level] == null) {
+            if (level == 0) {
+                emptyNodes[level] = dead;
+            } else {
+                Node child = empty(level - 1);
+                emptyNodes[level] = join(child, child, child, child);
+            }
+        }
+        return emptyNodes[level];
+    }
+
+    /**
+     * Surround a node with empty space; the node is the center of the result
+     *
+     * @param node node to expand
+     * @return node of the next level
+     */
+    private Node expand(Node node) {
+        Node border = empty(node.level - 1);
+        return join(
+                join(border, border, border, node.nw),
+                join(border, border, node.ne, border),
+                join(border, node.sw, border, border),
+                join(node.se, border, border, border));
+    }
+
+    /**
+     * Check if all living cells of a node are in its center quarter
+     * (a quarter of the edge length, i.e. the innermost grandchild of every quadrant)
+     *
+     * @param node node
+     * @return true if the pattern is centered; false for nodes with a level below 3
+     */
+    private static boolean isCentered(Node node) {
+        return node.level > BASE_LEVEL
+                && node.nw.population == node.nw.se.se.population
+                && node.ne.population == node.ne.sw.sw.population
+                && node.sw.population == node.sw.ne.ne.population
+                && node.se.population == node.se.nw.nw.population;
+    }
+
+    /**
+     * Get the center of a node (half the size)
+     *
+     * @param node node
+     * @return center node of the next lower level
+     */
+    private Node center(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /**
+     * Get the node between two horizontally neighbouring nodes
+     *
+     * @param west west node
+     * @param east east node
+     * @return node of the same level, centered between both nodes
+     */
+    private Node centerHorizontal(Node west, Node east) {
+        return join(west.ne, east.nw, west.se, east.sw);
+    }
+
+    /**
+     * Get the node between two vertically neighbouring nodes
+     *
+     * @param north north node
+     * @param south south node
+     * @return node of the same level, centered between both nodes
+     */
+    private Node centerVertical(Node north, Node south) {
+        return join(north.sw, north.se, south.nw, south.ne);
+    }
+
+
+    /**
+     * Advance the center of a node by 2^stepLevel generations
+     *
+     * @param node      node with a level of at least 2
+     * @param stepLevel 2^stepLevel generations; at most the level of the node - 2
+     * @return center of the node (next lower level) after the generations
+     */
+    private Node successor(Node node, int stepLevel) {
+        if (node.population == 0) {
+            return node.nw;
+        }
+        if (node.result != null && node.resultStepLevel == stepLevel) {
+            return node.result;
+        }
+
+        Node result;
+        if (node.level == BASE_LEVEL) {
+            result = baseSuccessor(node);
+        } else {
+            // The 9 overlapping nodes of the next lower level
+            Node n00 = node.nw;
+            Node n01 = centerHorizontal(node.nw, node.ne);
+            Node n02 = node.ne;
+            Node n10 = centerVertical(node.nw, node.sw);
+            Node n11 = center(node);
+            Node n12 = centerVertical(node.ne, node.se);
+            Node n20 = node.sw;
+            Node n21 = centerHorizontal(node.sw, node.se);
+            Node n22 = node.se;
+
+            if (stepLevel == node.level - 2) {
+                // Full speed: advance twice by half the generations
+                int halfStep = stepLevel - 1;
+                Node r00 = successor(n00, halfStep);
+                Node r01 = successor(n01, halfStep);
+                Node r02 = successor(n02, halfStep);
+                Node r10 = successor(n10, halfStep);
+                Node r11 = successor(n11, halfStep);
+                Node r12 = successor(n12, halfStep);
+                Node r20 = successor(n20, halfStep);
+                Node r21 = successor(n21, halfStep);
+                Node r22 = successor(n22, halfStep);
+
+                result = join(
+                        successor(join(r00, r01, r10, r11), halfStep),
+                        successor(join(r01, r02, r11, r12), halfStep),
+                        successor(join(r10, r11, r20, r21), halfStep),
+                        successor(join(r11, r12, r21, r22), halfStep));
+            } else {
+                // Slower: take the centers without advancing and advance only once
+                Node c00 = center(n00);
+                Node c01 = center(n01);
+                Node c02 = center(n02);
+                Node c10 = center(n10);
+                Node c11 = center(n11);
+                Node c12 = center(n12);
+                Node c20 = center(n20);
+                Node c21 = center(n21);
+                Node c22 = center(n22);
+
+                result = join(
+                        successor(join(c00, c01, c10, c11), stepLevel),
+                        successor(join(c01, c02, c11, c12), stepLevel),
+                        successor(join(c10, c11, c20, c21), stepLevel),
+                        successor(join(c11, c12, c21, c22), stepLevel));
+            }
+        }
+
+        node.result = result;
+        node.resultStepLevel = stepLevel;
+        return result;
+    }
+
+    /**
+     * Advance the center 2x2 cells of a 4x4 node by one generation
+     *
+     * @param node node of level 2
+     * @return center node of level 1 after one generation
+     */
+    private Node baseSuccessor(Node node) {
+        int[][] cells = new int[4][4];
+        writeCells(node, cells, 0, 0);
+
+        Node[] center = new Node[4];
+        for (int y = 1; y <= 2; y++) {
+            for (int x = 1; x <= 2; x++) {
+                int livingNeighbours = -cells[y][x];
+                for (int yRad = y - 1; yRad <= y + 1; yRad++) {
+                    for (int xRad = x - 1; xRad <= x + 1; xRad++) {
+                        livingNeighbours += cells[yRad][xRad];
+                    }
+                }
+                center[(y - 1) * 2 + (x - 1)] =
+                        rule.nextState(cells[y][x], livingNeighbours) == 1 ? alive : dead;
+            }
+        }
+
+        return join(center[0], center[1], center[2], center[3]);
+    }
+
+    /**
+     * Write the cells of a small node into an array
+     *
+     * @param node  node
+     * @param cells array, which receives the cells
+     * @param x     x position of the node in the array
+     * @param y     y position of the node in the array
+     */
+    private static void writeCells(Node node, int[][] cells, int x, int y) {
+        if (node.level == 0) {
+            cells[y][x] = (int) node.population;
+        } else {
+            int half = 1 << (node.level - 1);
+            writeCells(node.nw, cells, x, y);
+            writeCells(node.ne, cells, x + half, y);
+            writeCells(node.sw, cells, x, y + half);
+            writeCells(node.se, cells, x + half, y + half);
+        }
+    }
+
+
+    /**
+     * Build a node from a region of the play field; cells outside of the play field are dead
+     *
+     * @param playField int[][] array which contains the play field
+     * @param level     level of the node
+     * @param x         x position of the region
+     * @param y         y position of the region
+     * @return canonical node
+     */
+    private Node fromArray(int[][] playField, int level, long x, long y) {
+        int dimensionY = playField.length;
+        int dimensionX = dimensionY > 0 ? playField[0].length : 0;
+        if (x >= dimensionX || y >= dimensionY) {
+            return empty(level);
+        }
+        if (level == 0) {
+            return playField[(int) y][(int) x] == 1 ? alive : dead;
+        }
+
+        long half = 1L << (level - 1);
+        return join(
+                fromArray(playField, level - 1, x, y),
+                fromArray(playField, level - 1, x + half, y),
+                fromArray(playField, level - 1, x, y + half),
+                fromArray(playField, level - 1, x + half, y + half));
+    }
+
+    /**
+     * Write the living cells of a node into the play field
+     *
+     * @param node      node
+     * @param playField int[][] array which contains the play field
+     * @param x         x position of the node in the play field
+     * @param y         y position of the node in the play field
+     */
+    private static void writeToArray(Node node, int[][] playField, long x, long y) {
+        if (node.population == 0) {
+            return;
+        }
+        if (node.level == 0) {
+            if (y >= 0 && y < playField.length && x >= 0 && x < playField[(int) y].length) {
+                playField[(int) y][(int) x] = 1;
+            }
+            return;
+        }
+
+        long half = 1L << (node.level - 1);
+        writeToArray(node.nw, playField, x, y);
+        writeToArray(node.ne, playField, x + half, y);
+        writeToArray(node.sw, playField, x, y + half);
+        writeToArray(node.se, playField, x + half, y + half);
+    }
+
+    /**
+     * Find the bounding box of the living cells of a node
+     *
+     * @param node   node
+     * @param x      x position of the node
+     * @param y      y position of the node
+     * @param bounds minimum x, minimum y, maximum x and maximum y; updated with the living cells
+     */
+    private static void findBounds(Node node, long x, long y, long[] bounds) {
+        if (node.population == 0) {
+            return;
+        }
+        long size = 1L << node.level;
+        // Skip the node if it is completely inside of the current bounding box
+        if (x >= bounds[0] && y >= bounds[1] && x + size - 1 <= bounds[2] && y + size - 1 <= bounds[3]) {
+            return;
+        }
+        if (node.level == 0) {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
+            return;
+        }
+
+        long half = size / 2;
+        findBounds(node.nw, x, y, bounds);
+        findBounds(node.ne, x + half, y, bounds);
+        findBounds(node.sw, x, y + half, bounds);
+        findBounds(node.se, x + half, y + half, bounds);
+    }
+
+    /**
+     * Drop all nodes and memoized results, which are not needed for the root anymore
+     *
+     * @param root current root node
+     */
+    private void collectGarbage(Node root) {
+        clear();
+        keep(root);
+    }
+
+    /**
+     * Store a node and its children again, without the memoized results
+     *
+     * @param node node to keep
+     */
+    private void keep(Node node) {
+        if (node.level == 0 || nodes.putIfAbsent(node, node) != null) {
+            return;
+        }
+        node.result = null;
+        keep(node.nw);
+        keep(node.ne);
+        keep(node.sw);
+        keep(node.se);
+    }
+
+
+    /**
+     * Node of the quadtree (2^level x 2^level cells)
+     * <p>
+     * Nodes are canonical, so two nodes are equal if they have the same children (identity).
+     */
+    private static final class Node {
+        /**
+         * Level of the node; 0 = single cell
+         */
+        private final int level;
+
+        /**
+         * North west child
+         */
+        private final Node nw;
+
+        /**
+         * North east child
+         */
+        private final Node ne;
+
+        /**
+         * South west child
+         */
+        private final Node sw;
+
+        /**
+         * South east child
+         */
+        private final Node se;
+
+        /**
+         * Amount of living cells
+         */
+        private final long population;
+
+        /**
+         * Unique id of the node
+         */
+        private final long id;
+
+        /**
+         * Hash code computed from the ids of the children
+         */
+        private final int hash;
+
+        /**
+         * Memoized result of the successor
+         */
+        private Node result;
+
+        /**
+         * Step level (2^stepLevel generations) of the memoized result
+         */
+        private int resultStepLevel;
+
+        /**
+         * Node Constructor
+         *
+         * @param level      level of the node
+         * @param nw         north west child
+         * @param ne         north east child
+         * @param sw         south west child
+         * @param se         south east child
+         * @param population amount of living cells
+         * @param id         unique id of the node
+         */
+        Node(int level, Node nw, Node ne, Node sw, Node se, long population, long id) {
+            this.level = level;
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.population = population;
+            this.id = id;
+
+            if (nw == null) {
+                hash = Long.hashCode(id);
+            } else {
+                long h = nw.id;
+                h = h * 0x9E3779B97F4A7C15L + ne.id;
+                h = h * 0x9E3779B97F4A7C15L + sw.id;
+                h = h * 0x9E3779B97F4A7C15L + se.id;
+                hash = Long.hashCode(h ^ (h >>> 29));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node node = (Node) o;
+            return nw != null && nw == node.nw && ne == node.ne && sw == node.sw && se == node.se;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
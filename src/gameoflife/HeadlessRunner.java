@@ -0,0 +1,263 @@
+package gameoflife;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line runner, which simulates a play field without the GUI (and without JavaFX)
+ * <p>
+ * Usage: HeadlessRunner [options]
+ * --preset FILE       load the play field from a preset (CSV) file
+ * --size XxY          size of a new play field, e.g. 200x100 (if no preset is loaded)
+ * --seed N            fill the new play field randomly with the seed
+ * --density D         probability of a living cell for the random fill (default 0.4)
+ * --rule RULE         game rules, e.g. B3/S23 or R5,B34-45,S33-57 (default B3/S23)
+ * --topology T        bounded, torus or klein (default bounded)
+ * --generations N     maximum amount of generations (default 1000)
+ * --until-stable      stop, when the play field is stable or repeats itself
+ * --threads N         amount of threads for stepping (default: all cores)
+ * --out FILE          write the final play field as preset (CSV) file
+ * --analysis FILE     write the living cells per generation as CSV file
+ *
+ * @author Richard Krikler
+ */
+public final class HeadlessRunner {
+    /**
+     * Exit code for invalid arguments
+     */
+    private static final int EXIT_USAGE = 2;
+
+    /**
+     * Exit code for errors while reading or writing files
+     */
+    private static final int EXIT_IO = 1;
+
+    /**
+     * Default probability of a living cell for the random fill
+     */
+    private static final double DEFAULT_DENSITY = 0.4;
+
+    /**
+     * Default maximum amount of generations
+     */
+    private static final int DEFAULT_GENERATIONS = 1000;
+
+    /**
+     * Amount of generations, which are advanced in one batch (if the run does not stop on cycles)
+     */
+    private static final int BATCH_GENERATIONS = 1024;
+
+
+    /**
+     * HeadlessRunner Constructor (only static methods)
+     */
+    private HeadlessRunner() {
+    }
+
+
+    /**
+     * Run the simulation from the command line
+     *
+     * @param args command line arguments (see the class description)
+     */
+    public static void main(String[] args) {
+        int exitCode = run(args, System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Run the simulation
+     *
+     * @param args command line arguments (see the class description)
+     * @param out  receives the report
+     * @param err  receives the error messages
+     * @return exit code; 0 = success
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Map<String, String> options;
+        PlayField playField;
+        int maxGenerations;
+        try {
+            options = parseOptions(args);
+            playField = createPlayField(options);
+            maxGenerations = Integer.parseInt(options.getOrDefault("--generations",
+                    Integer.toString(DEFAULT_GENERATIONS)));
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.println("Usage: HeadlessRunner [--preset FILE | --size XxY [--seed N] [--density D]] "
+                    + "[--rule RULE] [--topology bounded|torus|klein] [--generations N] [--until-stable] "
+                    + "[--threads N] [--out FILE] [--analysis FILE]");
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            err.println("Error: could not read the preset (" + e.getMessage() + ")");
+            return EXIT_IO;
+        }
+
+        boolean untilStable = options.containsKey("--until-stable");
+        long cells = (long) playField.getDimensionX() * playField.getDimensionY();
+        // The starting generation is the first value of the analysis
+        int startCells = playField.getLivingCells();
+
+        long startTime = System.nanoTime();
+        int generations = 0;
+        while (generations < maxGenerations) {
+            // Stopping on cycles is checked after every generation
+            int batch = untilStable ? 1 : Math.min(BATCH_GENERATIONS, maxGenerations - generations);
+            int advanced = playField.advance(batch);
+            generations += advanced;
+            if (advanced < batch || (untilStable && playField.isCycleDetected())) {
+                break;
+            }
+        }
+        double seconds = Math.max((System.nanoTime() - startTime) / 1e9, 1e-9);
+        playField.setParallelism(1);
+
+        try {
+            if (options.containsKey("--out")) {
+                Files.writeString(Path.of(options.get("--out")), PresetCsv.format(playField));
+            }
+            if (options.containsKey("--analysis")) {
+                Files.writeString(Path.of(options.get("--analysis")), analysisToCSV(playField.getAnalysis()));
+            }
+        } catch (IOException e) {
+            err.println("Error: could not write the result (" + e.getMessage() + ")");
+            return EXIT_IO;
+        }
+
+        out.printf(Locale.ROOT, "Generations: %d (%s)%n", generations,
+                playField.isCycleDetected()
+                        ? "stable from generation " + playField.getCycleStart()
+                        + ", period " + playField.getCyclePeriod()
+                        : "not stable");
+        out.printf(Locale.ROOT, "Living cells: %d -> %d%n", startCells, playField.getLivingCells());
+        out.printf(Locale.ROOT, "Time: %.3f s%n", seconds);
+        out.printf(Locale.ROOT, "Generations/second: %.1f%n", generations / seconds);
+        out.printf(Locale.ROOT, "Cell updates/second: %.4g%n", generations * (double) cells / seconds);
+        return 0;
+    }
+
+
+    /**
+     * Parse the command line arguments into options
+     *
+     * @param args command line arguments
+     * @return options with their values (an empty String for flags)
+     * @throws IllegalArgumentException if an option is unknown or has no value
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--until-stable":
+                    options.put(args[i], "");
+                    break;
+                case "--preset":
+                case "--size":
+                case "--seed":
+                case "--density":
+                case "--rule":
+                case "--topology":
+                case "--generations":
+                case "--threads":
+                case "--out":
+                case "--analysis":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("The option " + args[i] + " needs a value");
+                    }
+                    options.put(args[i], args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Create the play field from the options
+     *
+     * @param options parsed command line options
+     * @return play field with the rules, the topology and the starting generation
+     * @throws IOException              if the preset can not be read
+     * @throws IllegalArgumentException if an option has an invalid value
+     */
+    private static PlayField createPlayField(Map<String, String> options) throws IOException {
+        PlayField playField = new PlayField(0, 0);
+        playField.setRule(options.getOrDefault("--rule", "B3/S23"));
+        playField.setTopology(parseTopology(options.getOrDefault("--topology", "bounded")));
+        playField.setParallelism(Integer.parseInt(options.getOrDefault("--threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors()))));
+        // The previous generations are not stored, the run goes at full speed
+        playField.setDoubleBuffered(true);
+
+        if (options.containsKey("--preset")) {
+            int[][] preset = PresetCsv.parse(Files.readAllLines(Path.of(options.get("--preset"))));
+            if (preset == null) {
+                throw new IllegalArgumentException(
+                        "The preset (\"" + options.get("--preset") + "\") is not valid");
+            }
+            playField.setPlayField(preset);
+        } else if (options.containsKey("--size")) {
+            String[] size = options.get("--size").toLowerCase(Locale.ROOT).split("x");
+            if (size.length != 2) {
+                throw new IllegalArgumentException("The size has to be given as XxY, e.g. 200x100");
+            }
+            playField.setSize(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+            if (options.containsKey("--seed")) {
+                double density = options.containsKey("--density")
+                        ? Double.parseDouble(options.get("--density")) : DEFAULT_DENSITY;
+                playField.placeRandomly(Long.parseLong(options.get("--seed")), density);
+            }
+        } else {
+            throw new IllegalArgumentException("Either --preset or --size is needed");
+        }
+        return playField;
+    }
+
+    /**
+     * Get the topology from its name on the command line
+     *
+     * @param name bounded, torus or klein
+     * @return topology
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    private static Topology parseTopology(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "bounded":
+                return Topology.BOUNDED;
+            case "torus":
+                return Topology.TORUS;
+            case "klein":
+                return Topology.KLEIN_BOTTLE;
+            default:
+                throw new IllegalArgumentException("Unknown topology " + name);
+        }
+    }
+
+    /**
+     * Convert the living cells per generation of the analysis into CSV format
+     *
+     * @param analysis analysis of the play field
+     * @return CSV with the columns generation, living cells, change, percent change
+     */
+    static String analysisToCSV(Analysis analysis) {
+        StringBuilder csv = new StringBuilder("generation,livingCells,change,percentChange");
+        csv.append(System.lineSeparator());
+        for (Map.Entry<Integer, Double[]> entry : new TreeMap<>(analysis.getCellsPerGen()).entrySet()) {
+            Double[] values = entry.getValue();
+            csv.append(entry.getKey()).append(',')
+                    .append(values[0].intValue()).append(',')
+                    .append(values[1].intValue()).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", values[2]))
+                    .append(System.lineSeparator());
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package gameoflife;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations (in nanoseconds) with a log-linear bucket layout (like an HDR histogram)
+ * - every power of two is split into SUB_BUCKETS buckets of the same width,
+ *   so every recorded value is stored with a relative error of less than 1 / SUB_BUCKETS
+ * - values are recorded lock-free (one atomic increment), so the stepping thread
+ *   is never blocked by a thread, which reads the percentiles
+ *
+ * @author Richard Krikler
+ */
+public final class LatencyHistogram {
+    /**
+     * Amount of bits of the sub buckets (precision of the histogram)
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Amount of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Amount of buckets: values below SUB_BUCKETS are stored exactly,
+     * every further power of two (up to 2^63) gets SUB_BUCKETS buckets
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * Count of recorded values per bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Amount of recorded values
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * Sum of all recorded values
+     */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /**
+     * Largest recorded value
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+
+    /**
+     * Record a duration
+     *
+     * @param nanos duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Remove all recorded values
+     * (values, which are recorded at the same time, may be kept partially)
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+
+    /**
+     * Get the amount of recorded values
+     *
+     * @return amount of recorded values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Get the mean of the recorded values
+     *
+     * @return mean in nanoseconds; 0 if nothing has been recorded
+     */
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * Get the largest recorded value
+     *
+     * @return maximum in nanoseconds (exact)
+     */
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Get the value at a percentile of the recorded values
+     *
+     * @param percentile percentile between 0 and 100 (e.g. 99 for p99)
+     * @return highest value of the bucket, which contains the percentile (at most the maximum);
+     * 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile has to be between 0 and 100!");
+        }
+
+        // The counts are read bucket by bucket, values can be recorded in the meantime
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            count += snapshot[bucket];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValue(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+
+    /**
+     * Get the bucket of a value
+     *
+     * @param value value (0 or positive)
+     * @return index of the bucket
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Power of two of the value; the next SUB_BUCKET_BITS bits select the sub bucket
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the highest value, which is stored in a bucket
+     *
+     * @param bucket index of the bucket
+     * @return highest value of the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowestValue = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,185 @@
+package gameoflife;
+
+import java.util.List;
+
+/**
+ * Hash map with primitive long keys (open addressing with linear probing),
+ * so no Long object is created for a lookup
+ *
+ * @param <V> type of the values
+ * @author Richard Krikler
+ */
+final class LongHashMap<V> {
+    /**
+     * Capacity of a new map (has to be a power of two)
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Keys of the slots
+     */
+    private long[] keys;
+
+    /**
+     * Values of the slots; null = empty slot
+     */
+    private Object[] values;
+
+    /**
+     * Amount of stored entries
+     */
+    private int size;
+
+
+    /**
+     * LongHashMap Constructor
+     */
+    LongHashMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+
+    /**
+     * Get the value of a key
+     *
+     * @param key key of the entry
+     * @return value or null if there is no entry for the key
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store a value for a key (an old value of the key is replaced)
+     *
+     * @param key   key of the entry
+     * @param value value of the entry (not null)
+     */
+    void put(long key, V value) {
+        // Keep the load factor at 0.5 at most
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Remove the entry of a key
+     *
+     * @param key key of the entry
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return;
+        }
+
+        // Shift the following entries of the probe sequence back into the free slot
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            // Move the entry if its home slot is not between the free slot and the entry
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = null;
+        size--;
+    }
+
+    /**
+     * Get the amount of stored entries
+     *
+     * @return amount of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all entries
+     */
+    void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Add all values to a list (the list is cleared before)
+     *
+     * @param target list, which receives the values
+     */
+    @SuppressWarnings("unchecked")
+    void collectValues(List<V> target) {
+        target.clear();
+        for (Object value : values) {
+            if (value != null) {
+                target.add((V) value);
+            }
+        }
+    }
+
+
+    /**
+     * Copy all entries into new slot arrays
+     *
+     * @param capacity new amount of slots (power of two)
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Get the home slot of a key (the bits of the key are mixed, because chunk coordinates are close)
+     *
+     * @param key  key of the entry
+     * @param mask amount of slots - 1
+     * @return index of the home slot
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
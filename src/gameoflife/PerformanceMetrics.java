@@ -0,0 +1,204 @@
+package gameoflife;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performance metrics of a running game
+ * - duration of every step, of every drawing of the play field and of every analysis update
+ *   (in lock-free histograms, see LatencyHistogram)
+ * - throughput in generations and cell updates per second, measured over the last full second
+ * <p>
+ * The steps are recorded by the PlayField, the drawing and the analysis update by the GUI.
+ *
+ * @author Richard Krikler
+ */
+public final class PerformanceMetrics {
+    /**
+     * Length of the window of the throughput in nanoseconds
+     */
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    /**
+     * Duration of the steps
+     */
+    private final LatencyHistogram stepTimes = new LatencyHistogram();
+
+    /**
+     * Duration of the drawing of the play field
+     */
+    private final LatencyHistogram renderTimes = new LatencyHistogram();
+
+    /**
+     * Duration of the analysis updates
+     */
+    private final LatencyHistogram analysisTimes = new LatencyHistogram();
+
+    /**
+     * Start of the current throughput window (System.nanoTime)
+     */
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * Generations of the current throughput window
+     */
+    private final AtomicLong windowGenerations = new AtomicLong();
+
+    /**
+     * Cell updates of the current throughput window
+     */
+    private final AtomicLong windowCells = new AtomicLong();
+
+    /**
+     * Generations per second of the last full window
+     */
+    private volatile double generationsPerSecond;
+
+    /**
+     * Cell updates per second of the last full window
+     */
+    private volatile double cellsPerSecond;
+
+
+    /**
+     * Record a step
+     *
+     * @param nanos duration of the step in nanoseconds
+     * @param cells amount of cells of the play field
+     */
+    public void recordStep(long nanos, long cells) {
+        stepTimes.record(nanos);
+        windowGenerations.incrementAndGet();
+        windowCells.addAndGet(cells);
+        closeWindow(System.nanoTime());
+    }
+
+    /**
+     * Record the drawing of the play field
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void recordRender(long nanos) {
+        renderTimes.record(nanos);
+    }
+
+    /**
+     * Record an update of the analysis
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void recordAnalysisUpdate(long nanos) {
+        analysisTimes.record(nanos);
+    }
+
+    /**
+     * Remove all recorded values
+     */
+    public void reset() {
+        stepTimes.reset();
+        renderTimes.reset();
+        analysisTimes.reset();
+        windowStart.set(System.nanoTime());
+        windowGenerations.set(0);
+        windowCells.set(0);
+        generationsPerSecond = 0;
+        cellsPerSecond = 0;
+    }
+
+
+    /**
+     * Get the histogram of the step durations
+     *
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getStepTimes() {
+        return stepTimes;
+    }
+
+    /**
+     * Get the histogram of the durations of the drawing of the play field
+     *
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getRenderTimes() {
+        return renderTimes;
+    }
+
+    /**
+     * Get the histogram of the durations of the analysis updates
+     *
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getAnalysisTimes() {
+        return analysisTimes;
+    }
+
+    /**
+     * Get the generations per second
+     *
+     * @return generations per second of the last full second; 0 if the game is not running
+     */
+    public double getGenerationsPerSecond() {
+        closeWindow(System.nanoTime());
+        return generationsPerSecond;
+    }
+
+    /**
+     * Get the cell updates per second
+     *
+     * @return cell updates per second of the last full second; 0 if the game is not running
+     */
+    public double getCellsPerSecond() {
+        closeWindow(System.nanoTime());
+        return cellsPerSecond;
+    }
+
+    /**
+     * Summary of the metrics in one line, e.g. for logging
+     *
+     * @return generations/s, cells/s and p50/p99 of the step, drawing and analysis durations
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%.1f gen/s, %.3g cells/s, step %s, render %s, analysis %s",
+                getGenerationsPerSecond(), getCellsPerSecond(),
+                formatPercentiles(stepTimes), formatPercentiles(renderTimes),
+                formatPercentiles(analysisTimes));
+    }
+
+    /**
+     * Format the median and the 99th percentile of a histogram
+     *
+     * @param histogram histogram in nanoseconds
+     * @return e.g. "0.42 / 1.30 ms"
+     */
+    static String formatPercentiles(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "%.2f / %.2f ms",
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6);
+    }
+
+
+    /**
+     * Close the throughput window, if it is at least one second old
+     * <p>
+     * Only the thread, which moves the start of the window, publishes the throughput,
+     * a window without any generation gives a throughput of 0.
+     *
+     * @param now current System.nanoTime
+     */
+    private void closeWindow(long now) {
+        long start = windowStart.get();
+        long elapsed = now - start;
+        if (elapsed < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+
+        long generations = windowGenerations.getAndSet(0);
+        long cells = windowCells.getAndSet(0);
+        double seconds = elapsed / 1e9;
+        generationsPerSecond = generations / seconds;
+        cellsPerSecond = cells / seconds;
+    }
+}
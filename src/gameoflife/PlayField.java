@@ -1,8 +1,11 @@
 package gameoflife;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.ref.SoftReference;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * PlayField of the Game Of Life
@@ -10,6 +13,27 @@ import java.util.HashSet;
  * @author Richard Krikler
  */
 public class PlayField {
+    /**
+     * Minimum amount of rows of a band, which is stepped by one thread
+     */
+    private static final int MIN_BAND_ROWS = 16;
+
+    /**
+     * Amount of bands per thread (more bands than threads balance the work between the threads)
+     */
+    private static final int BANDS_PER_THREAD = 4;
+
+    /**
+     * Default minimum amount of generations, which are fast-forwarded by HashLife in stepTo
+     */
+    public static final int DEFAULT_HASH_LIFE_THRESHOLD = 1024;
+
+    /**
+     * Amount of rows, which are filled with the same random generator by placeRandomly
+     * (fixed, so the result does not depend on the amount of threads)
+     */
+    private static final int RANDOM_BLOCK_ROWS = 64;
+
     /**
      * Stores the play field.
      * 2D int Array
@@ -17,9 +41,9 @@ public class PlayField {
     private int[][] playField;
 
     /**
-     * Stores all previous play field arrays
+     * Stores the previous generations (keyframes and deltas)
      */
-    private final HashMap<Integer, int[][]> playFields = new HashMap<>();
+    private final GenerationHistory history = new GenerationHistory();
 
     /**
      * Stores the current number of generation
@@ -32,19 +56,112 @@ public class PlayField {
     private float gameSpeed;
 
     /**
-     * Stores the numbers of living cells needed to make a dead cell alive
+     * Stores the game rules (numbers of living cells needed to make a dead cell alive
+     * and to keep a cell alive), compiled into lookup tables
+     */
+    private Rule rule = new Rule(new int[0], new int[0]);
+
+    /**
+     * Stores the data and the functions for the game analysis
      */
-    private final HashSet<Integer> reanimateRule = new HashSet<>();
+    private final Analysis analysis = new Analysis();
 
     /**
-     * Stores the numbers of living cells needed to keep a cell alive
+     * Optional grid engine (e.g. BitGrid or the unbounded SparseGrid),
+     * which replaces the playField array if it is set
      */
-    private final HashSet<Integer> keepLifeRule = new HashSet<>();
+    private GridEngine engine;
 
     /**
-     * Stores the data and the functions for the game analysis
+     * True if the play field is stepped in place between two preallocated arrays
      */
-    private final Analysis analysis = new Analysis();
+    private boolean doubleBuffered;
+
+    /**
+     * Second array for the double buffered stepping, receives the next generation
+     */
+    private int[][] backBuffer;
+
+    /**
+     * Amount of threads for stepping the play field (1 = sequential)
+     */
+    private int parallelism = 1;
+
+    /**
+     * ForkJoinPool for the parallel stepping; null if the play field is stepped sequentially
+     */
+    private ForkJoinPool stepPool;
+
+    /**
+     * Values collected during the last step (living and changed cells)
+     */
+    private final StepStats stepStats = new StepStats();
+
+    /**
+     * Values collected per band of rows during the last parallel step
+     */
+    private StepStats[] bandStats = new StepStats[0];
+
+    /**
+     * Minimum amount of generations, which are fast-forwarded by HashLife in stepTo
+     */
+    private int hashLifeThreshold = DEFAULT_HASH_LIFE_THRESHOLD;
+
+    /**
+     * HashLife engine with its memo cache; softly referenced, so it is dropped under memory pressure
+     */
+    private SoftReference<HashLife> hashLifeCache = new SoftReference<>(null);
+
+    /**
+     * Topology of the play field (neighbours of the cells at the border)
+     */
+    private Topology topology = Topology.BOUNDED;
+
+    /**
+     * Ghost row above the first row for the current step; null = dead row
+     */
+    private int[] haloAbove;
+
+    /**
+     * Ghost row below the last row for the current step; null = dead row
+     */
+    private int[] haloBelow;
+
+    /**
+     * Own arrays for the mirrored ghost rows of the Klein bottle (above, below)
+     */
+    private int[][] mirroredRows = new int[2][0];
+
+    /**
+     * Kernel, which computes the rows of the int array play field
+     */
+    private StepKernel kernel = StepKernel.createBest();
+
+    /**
+     * Summed-area table of the current generation for rules with a radius larger than 1
+     */
+    private final SummedAreaTable summedAreaTable = new SummedAreaTable();
+
+    /**
+     * Zobrist hash of the int array play field, updated for every cell, which changes its state
+     */
+    private long hash;
+
+    /**
+     * Amount of living cells in the int array play field,
+     * updated by every step and every edited cell
+     */
+    private int livingCells;
+
+    /**
+     * Detects if the play field has entered a cycle (with the hashes of the generations)
+     */
+    private final CycleDetector cycleDetector = new CycleDetector();
+
+    /**
+     * Performance metrics (duration of the steps, throughput)
+     */
+    private final PerformanceMetrics metrics = new PerformanceMetrics();
 
 
     /**
@@ -82,19 +199,263 @@ public class PlayField {
      * @param playField int[][] array which contains the play field
      */
     public void setPlayField(int[][] playField) {
-        this.playField = playField;
+        if (engine != null) {
+            engine.load(playField);
+        } else {
+            this.playField = playField;
+            hash = Zobrist.hash(playField);
+            livingCells = countLivingCells(playField);
+        }
+        cycleDetector.reset();
     }
 
     /**
-     * Get the play field array
+     * Get the play field array.
+     * The cells of a grid engine are copied into a new array on the heap (also for an off-heap engine).
      *
      * @return int[][] array which contains the play field
      */
     public int[][] getPlayField() {
+        if (engine != null) {
+            return engine.toArray();
+        }
         return playField;
     }
 
 
+    /**
+     * Get an immutable copy of the current generation (see SnapshotHandoff).
+     * The copy is an int array on the heap (also for an off-heap engine).
+     *
+     * @return snapshot of the current generation
+     */
+    public GenerationSnapshot snapshot() {
+        int[][] cells;
+        if (engine != null) {
+            // The engine already returns a new array
+            cells = engine.toArray();
+        } else {
+            cells = new int[playField.length][];
+            for (int y = 0; y < playField.length; y++) {
+                cells[y] = playField[y].clone();
+            }
+        }
+        // Without an entry in the analysis (see getLivingCells)
+        return new GenerationSnapshot(cells, getGeneration(), countLivingCells());
+    }
+
+
+    /**
+     * Get the analysis of the living cells per generation
+     *
+     * @return analysis of the play field
+     */
+    public Analysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * Get the history of the previous generations (e.g. to set its memory budget)
+     *
+     * @return history of the previous generations
+     */
+    public GenerationHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Get the performance metrics; the GUI adds the duration of the drawing and the analysis updates
+     *
+     * @return performance metrics of the play field
+     */
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+
+    /**
+     * Set the grid engine, which stores and steps the play field.
+     * The current play field is copied into the engine (see adoptEngine to keep the cells of the engine).
+     *
+     * @param engine grid engine; null to go back to the int array
+     * @throws IllegalArgumentException if the engine does not support the current game rules
+     */
+    public void setEngine(GridEngine engine) {
+        checkRule(engine, rule);
+        int[][] currentPlayField = getPlayField();
+        this.engine = engine;
+        setPlayField(currentPlayField);
+    }
+
+    /**
+     * Take over a grid engine together with its cells (e.g. a reopened MappedGrid to continue a run),
+     * instead of copying the play field into it.
+     * The size and the living cells come from the engine; the stored generations are dropped
+     * and the generation is added to the analysis.
+     *
+     * @param engine     grid engine, which already contains the play field
+     * @param generation generation of the cells of the engine (e.g. MappedGrid.getGeneration)
+     * @throws IllegalArgumentException if the engine does not support the current game rules
+     */
+    public void adoptEngine(GridEngine engine, int generation) {
+        checkRule(engine, rule);
+        this.engine = engine;
+        generationCount = generation;
+        history.clear();
+        cycleDetector.reset();
+        // The generations before are not known to the analysis
+        analysis.addSkippedCellCount(generation, countLivingCells());
+    }
+
+    /**
+     * Get the grid engine, which stores and steps the play field
+     *
+     * @return grid engine or null if the int array is used
+     */
+    public GridEngine getEngine() {
+        return engine;
+    }
+
+
+    /**
+     * Enable or disable the double buffered stepping.
+     * <p>
+     * The next generation is computed into a preallocated second array and the arrays are swapped,
+     * so no garbage is produced per generation.
+     * The previous generations are not stored in this mode, so it is not possible to step back
+     * (this also applies to the grid engines, which are not copied onto the heap for every generation).
+     *
+     * @param doubleBuffered true to step between two preallocated arrays
+     */
+    public void setDoubleBuffered(boolean doubleBuffered) {
+        this.doubleBuffered = doubleBuffered;
+        if (!doubleBuffered) {
+            backBuffer = null;
+        }
+    }
+
+    /**
+     * Check if the double buffered stepping is enabled
+     *
+     * @return true if the play field is stepped between two preallocated arrays
+     */
+    public boolean isDoubleBuffered() {
+        return doubleBuffered;
+    }
+
+
+    /**
+     * Set the amount of threads for stepping the play field.
+     * <p>
+     * With more than one thread the rows are split into bands,
+     * which are stepped on a ForkJoinPool. The result is the same as the sequential result.
+     *
+     * @param parallelism amount of threads; 1 = sequential
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism has to be at least 1!");
+        }
+
+        if (stepPool != null) {
+            stepPool.shutdown();
+            stepPool = null;
+        }
+
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            stepPool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * Get the amount of threads for stepping the play field
+     *
+     * @return amount of threads; 1 = sequential
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+
+    /**
+     * Enable or disable the vector kernel (jdk.incubator.vector) for stepping the int array.
+     * It is enabled by default if the module is available; without it the scalar kernel is used.
+     *
+     * @param vectorized true to use the vector kernel if it is available
+     */
+    public void setVectorized(boolean vectorized) {
+        StepKernel vectorKernel = vectorized ? StepKernel.createVector() : null;
+        kernel = vectorKernel != null ? vectorKernel : new ScalarKernel();
+    }
+
+    /**
+     * Check if the vector kernel is used for stepping the int array
+     *
+     * @return true if the vector kernel is used
+     */
+    public boolean isVectorized() {
+        return !(kernel instanceof ScalarKernel);
+    }
+
+
+    /**
+     * Set the topology of the play field.
+     * <p>
+     * The wrapped neighbours are taken from ghost rows and columns,
+     * which are prepared once per generation and once per row,
+     * so the cells are computed as fast as on the bounded play field.
+     * The topology is used for the int array; the grid engines have their own topology.
+     *
+     * @param topology topology of the play field
+     */
+    public void setTopology(Topology topology) {
+        this.topology = topology;
+        cycleDetector.reset();
+    }
+
+    /**
+     * Get the topology of the play field
+     *
+     * @return topology of the play field
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+
+    /**
+     * Set the minimum amount of generations, which are fast-forwarded by HashLife in stepTo.
+     * <p>
+     * The generations in between are skipped, they are not stored and not added to the analysis.
+     *
+     * @param hashLifeThreshold minimum amount of generations; Integer.MAX_VALUE to disable HashLife
+     */
+    public void setHashLifeThreshold(int hashLifeThreshold) {
+        this.hashLifeThreshold = hashLifeThreshold;
+    }
+
+    /**
+     * Get the minimum amount of generations, which are fast-forwarded by HashLife in stepTo
+     *
+     * @return minimum amount of generations
+     */
+    public int getHashLifeThreshold() {
+        return hashLifeThreshold;
+    }
+
+    /**
+     * Drop the memo cache of the HashLife engine (e.g. under memory pressure)
+     */
+    public void clearHashLifeCache() {
+        HashLife hashLife = hashLifeCache.get();
+        if (hashLife != null) {
+            hashLife.clear();
+        }
+        hashLifeCache.clear();
+    }
+
+
     /**
      * Override the playField array with a new int array, with new dimensions.
      *
@@ -102,7 +463,14 @@ public class PlayField {
      * @param dimensionY y dimension of the play field
      */
     public void setSize(int dimensionX, int dimensionY) {
-        playField = new int[dimensionY][dimensionX];
+        if (engine != null) {
+            engine.setSize(dimensionX, dimensionY);
+        } else {
+            playField = new int[dimensionY][dimensionX];
+            hash = 0L;
+            livingCells = 0;
+        }
+        cycleDetector.reset();
     }
 
 
@@ -112,7 +480,9 @@ public class PlayField {
      * @return x dimension
      */
     public int getDimensionX() {
-        if (playField.length > 0) {
+        if (engine != null) {
+            return engine.getDimensionX();
+        } else if (playField.length > 0) {
             return playField[0].length;
         } else {
             return 0;
@@ -125,6 +495,9 @@ public class PlayField {
      * @return y dimension
      */
     public int getDimensionY() {
+        if (engine != null) {
+            return engine.getDimensionY();
+        }
         return playField.length;
     }
 
@@ -137,6 +510,9 @@ public class PlayField {
      * @return cell value
      */
     public int getCell(int posX, int posY) {
+        if (engine != null) {
+            return engine.getCell(posX, posY);
+        }
         return playField[posY][posX];
     }
 
@@ -148,7 +524,19 @@ public class PlayField {
      * @param value of the cell; 1 = alive, 0 = dead
      */
     public void setCell(int posX, int posY, int value) {
-        playField[posY][posX] = value;
+        if (engine != null) {
+            if (engine.getCell(posX, posY) != value) {
+                cycleDetector.reset();
+            }
+            engine.setCell(posX, posY, value);
+        } else {
+            if (playField[posY][posX] != value) {
+                hash ^= Zobrist.key(posX, posY);
+                livingCells += value == 1 ? 1 : -1;
+                cycleDetector.reset();
+            }
+            playField[posY][posX] = value;
+        }
     }
 
 
@@ -192,12 +580,10 @@ public class PlayField {
      * Set the field, that stores the needed cells for reanimation
      *
      * @param cellsNeeded cells needed to reanimate a dead cell
+     * @throws IllegalArgumentException if the grid engine does not support the rules
      */
     public void setReanimateRule(int... cellsNeeded) {
-        reanimateRule.clear();
-        for (int neededCell : cellsNeeded) {
-            reanimateRule.add(neededCell);
-        }
+        setRule(rule.withReanimateRule(cellsNeeded));
     }
 
     /**
@@ -206,7 +592,7 @@ public class PlayField {
      * @param cellsNeeded String of the needed cells, separated via ","
      */
     public void setReanimateRule(String cellsNeeded) {
-        setReanimateRule(GuiLogic.stringArToIntAr(cellsNeeded.split(",")));
+        setReanimateRule(Rule.parseCounts(cellsNeeded));
     }
 
     /**
@@ -215,19 +601,17 @@ public class PlayField {
      * @return String of the Reanimation Rule
      */
     public String getReanimateRule() {
-        return reanimateRule.toString().replaceAll("[\\[\\]\\s]", "");
+        return rule.getReanimateRule();
     }
 
     /**
      * Set the field, that stores the needed cells for keeping a cell
      *
      * @param cellsNeeded cells needed to keep a cell alive
+     * @throws IllegalArgumentException if the grid engine does not support the rules
      */
     public void setKeepLifeRule(int... cellsNeeded) {
-        keepLifeRule.clear();
-        for (int neededCell : cellsNeeded) {
-            keepLifeRule.add(neededCell);
-        }
+        setRule(rule.withKeepLifeRule(cellsNeeded));
     }
 
     /**
@@ -236,7 +620,7 @@ public class PlayField {
      * @param cellsNeeded String of the needed cells, separated via ","
      */
     public void setKeepLifeRule(String cellsNeeded) {
-        setKeepLifeRule(GuiLogic.stringArToIntAr(cellsNeeded.split(",")));
+        setKeepLifeRule(Rule.parseCounts(cellsNeeded));
     }
 
     /**
@@ -245,7 +629,52 @@ public class PlayField {
      * @return String of the Keep Alive Rule
      */
     public String getKeepLifeRule() {
-        return keepLifeRule.toString().replaceAll("[\\[\\]\\s]", "");
+        return rule.getKeepLifeRule();
+    }
+
+    /**
+     * Set both game rules with a String in the standard rule notation
+     *
+     * @param rule String of the rule, e.g. "B3/S23"
+     * @throws IllegalArgumentException if the grid engine does not support the rules
+     */
+    public void setRule(String rule) {
+        setRule(Rule.parse(rule));
+    }
+
+    /**
+     * Set both game rules
+     *
+     * @param rule compiled game rules
+     * @throws IllegalArgumentException if the grid engine does not support the rules
+     */
+    public void setRule(Rule rule) {
+        checkRule(engine, rule);
+        this.rule = rule;
+        cycleDetector.reset();
+    }
+
+    /**
+     * Check if a grid engine can step the game rules (see GridEngine.supports)
+     *
+     * @param engine grid engine; null for the int array, which supports every rule
+     * @param rule   game rules
+     * @throws IllegalArgumentException if the engine does not support the rules
+     */
+    private static void checkRule(GridEngine engine, Rule rule) {
+        if (engine != null && !engine.supports(rule)) {
+            throw new IllegalArgumentException("The game rules (\"" + rule + "\") are not supported by the "
+                    + engine.getClass().getSimpleName() + "!");
+        }
+    }
+
+    /**
+     * Get the game rules
+     *
+     * @return compiled game rules; toString() returns the standard rule notation, e.g. "B3/S23"
+     */
+    public Rule getRule() {
+        return rule;
     }
 
 
@@ -255,45 +684,152 @@ public class PlayField {
      * @return integer value with the counted cells
      */
     public int getLivingCells() {
-        int livingCells = 0;
+        int livingCells = countLivingCells();
 
-        for (int y = 0; y < getDimensionY(); y++) {
-            for (int x = 0; x < getDimensionX(); x++) {
-                if (getCell(x, y) == 1) {
-                    livingCells++;
-                }
-            }
+        if (getGeneration() > 0 && !analysis.getCellsPerGen().containsKey(getGeneration() - 1)) {
+            // The generations before have been skipped (e.g. an adopted engine, see adoptEngine)
+            analysis.addSkippedCellCount(getGeneration(), livingCells);
+        } else {
+            analysis.addCellCount(getGeneration(), livingCells);
         }
-
-        analysis.addCellCount(getGeneration(), livingCells);
         analysis.updateAnalysisGui();
 
         return livingCells;
     }
 
+    /**
+     * Get the amount of living cells in the play field (without updating the analysis).
+     * The amount is kept up to date by the steps and the edited cells, so it is not counted again.
+     *
+     * @return integer value with the living cells
+     */
+    private int countLivingCells() {
+        if (engine != null) {
+            return engine.countLiving();
+        }
+        return livingCells;
+    }
+
+    /**
+     * Count the living cells of a play field array
+     *
+     * @param playField int[][] array which contains the play field
+     * @return integer value with the counted cells
+     */
+    private static int countLivingCells(int[][] playField) {
+        int livingCells = 0;
+        for (int[] row : playField) {
+            for (int cell : row) {
+                livingCells += cell;
+            }
+        }
+        return livingCells;
+    }
+
 
     /**
      * Place living cells randomly on the play field
      */
     public void placeRandomly() {
-        setSize(getDimensionX(), getDimensionY());
-
+        SplittableRandom random = new SplittableRandom();
         int playFieldArea = getDimensionX() * getDimensionY();
         final double min = playFieldArea * .3;
         final double max = playFieldArea * .5;
         // Random amount of cells being placed (range between 30% to 50% of the play field)
-        int cellAmount = (int) ((Math.random() * (max - min)) + min);
+        int cellAmount = (int) ((random.nextDouble() * (max - min)) + min);
+
+        placeRandomCells(random.nextLong(), cellAmount);
+    }
+
+    /**
+     * Fill the play field randomly; every cell is alive with the given probability.
+     * <p>
+     * The rows are filled in blocks, every block has its own generator, which is split from the seed.
+     * The blocks are filled in parallel (see setParallelism),
+     * the result only depends on the seed, not on the amount of threads.
+     *
+     * @param seed    seed of the random generator
+     * @param density probability of a living cell (0 to 1)
+     */
+    public void placeRandomly(long seed, double density) {
+        if (!(density >= 0 && density <= 1)) {
+            throw new IllegalArgumentException("The density has to be between 0 and 1!");
+        }
+        setPlayField(randomField(new SplittableRandom(seed), density));
+    }
+
+    /**
+     * Fill the play field randomly with an exact amount of living cells.
+     * <p>
+     * The play field is filled with the matching density (see placeRandomly(long, double)),
+     * afterwards the few missing or surplus cells are placed or removed at random positions.
+     * The result only depends on the seed, not on the amount of threads.
+     *
+     * @param seed       seed of the random generator
+     * @param cellAmount amount of living cells
+     */
+    public void placeRandomCells(long seed, int cellAmount) {
+        int dimensionX = getDimensionX();
+        int dimensionY = getDimensionY();
+        long playFieldArea = (long) dimensionX * dimensionY;
+        if (cellAmount < 0 || cellAmount > playFieldArea) {
+            throw new IllegalArgumentException(
+                    "The amount of cells has to be between 0 and " + playFieldArea + "!");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] field = randomField(random, playFieldArea > 0 ? (double) cellAmount / playFieldArea : 0);
+        int livingCells = countLivingCells(field);
+
+        // Correct the difference to the exact amount (about the square root of the amount of cells)
+        while (livingCells != cellAmount) {
+            int posX = random.nextInt(dimensionX);
+            int posY = random.nextInt(dimensionY);
+            int cell = livingCells < cellAmount ? 1 : 0;
+            if (field[posY][posX] != cell) {
+                field[posY][posX] = cell;
+                livingCells += cell == 1 ? 1 : -1;
+            }
+        }
+        setPlayField(field);
+    }
+
+    /**
+     * Create a random play field with the dimensions of the play field
+     *
+     * @param random  generator, from which the generators of the blocks of rows are split
+     * @param density probability of a living cell
+     * @return int[][] array which contains the random play field
+     */
+    private int[][] randomField(SplittableRandom random, double density) {
+        int[][] field = new int[getDimensionY()][getDimensionX()];
+        int blocks = (field.length + RANDOM_BLOCK_ROWS - 1) / RANDOM_BLOCK_ROWS;
 
-        int cellCounter = 0;
-        while (cellCounter != cellAmount) {
-            int posX = (int) (Math.random() * getDimensionX());
-            int posY = (int) (Math.random() * getDimensionY());
+        // The generators are split in the order of the blocks, before the blocks are filled in any order
+        SplittableRandom[] blockRandoms = new SplittableRandom[blocks];
+        for (int block = 0; block < blocks; block++) {
+            blockRandoms[block] = random.split();
+        }
 
-            if (getCell(posX, posY) == 0) {
-                setCell(posX, posY, 1);
-                cellCounter++;
+        IntConsumer fillBlock = block -> {
+            SplittableRandom blockRandom = blockRandoms[block];
+            int yTo = Math.min((block + 1) * RANDOM_BLOCK_ROWS, field.length);
+            for (int y = block * RANDOM_BLOCK_ROWS; y < yTo; y++) {
+                int[] row = field[y];
+                for (int x = 0; x < row.length; x++) {
+                    row[x] = blockRandom.nextDouble() < density ? 1 : 0;
+                }
             }
+        };
+
+        if (stepPool == null || blocks < 2) {
+            for (int block = 0; block < blocks; block++) {
+                fillBlock.accept(block);
+            }
+        } else {
+            stepPool.submit(() -> IntStream.range(0, blocks).parallel().forEach(fillBlock)).join();
         }
+        return field;
     }
 
 
@@ -303,49 +839,346 @@ public class PlayField {
      * @return true if it was possible to go to the next generation
      */
     public boolean stepForward() {
-        int[][] newPlayField = new int[getDimensionY()][getDimensionX()];
+        // The generation before the step is the base for the cycle detection
+        if (cycleDetector.getLastGeneration() != getGeneration()) {
+            cycleDetector.record(getGeneration(), getHash());
+        }
 
-        for (int y = 0; y < getDimensionY(); y++) {
-            for (int x = 0; x < getDimensionX(); x++) {
-                int surroundedLivingCells = 0;
-
-                // Go through the surrounding cells of the cell at (x|y)
-                for (int yRad = y - 1; yRad <= y + 1; yRad++) {
-                    for (int xRad = x - 1; xRad <= x + 1; xRad++) {
-                        // Make sure that the surrounded cell is not out of bounds
-                        // or at the same place as the original cell
-                        if ((!(yRad == y && xRad == x))
-                                && (yRad >= 0 && yRad < getDimensionY())
-                                && (xRad >= 0 && xRad < getDimensionX())) {
-                            // Increase the surroundedLivingCells variable
-                            // with the value of the cell
-                            surroundedLivingCells += getCell(xRad, yRad);
-                        }
-                    }
-                }
+        // The event is only created while it is recorded, so a step does not allocate otherwise
+        StepEvent event = StepEvent.TYPE.isEnabled() ? new StepEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long startTime = System.nanoTime();
+        boolean changed = stepPlayField();
+        if (changed) {
+            metrics.recordStep(System.nanoTime() - startTime, (long) getDimensionX() * getDimensionY());
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.dimensionX = getDimensionX();
+                event.dimensionY = getDimensionY();
+                event.generation = getGeneration();
+                event.population = countLivingCells();
+                event.changed = changed;
+                event.commit();
+            }
+        }
+        // A play field, which does not change anymore, is a cycle with the period 1
+        cycleDetector.record(changed ? getGeneration() : getGeneration() + 1, getHash());
+        return changed;
+    }
 
-                // Go through the rules and change the value of the cell if necessary
-                if (reanimateRule.contains(surroundedLivingCells) && getCell(x, y) == 0) {
-                    newPlayField[y][x] = 1;
-                } else if (keepLifeRule.contains(surroundedLivingCells) && getCell(x, y) == 1) {
-                    newPlayField[y][x] = 1;
-                } else {
-                    newPlayField[y][x] = 0;
-                }
+    /**
+     * Compute the next generation with the engine or in the int array
+     *
+     * @return true if at least one cell has changed
+     */
+    private boolean stepPlayField() {
+        if (engine != null) {
+            // In the double buffered mode the engine is not copied for stepping back
+            // (e.g. an off-heap grid, which is too large for the heap);
+            // otherwise the cells are stored packed into bits, without an int array per generation
+            long[] oldBits = doubleBuffered ? null : engine.toBits();
+            if (!engine.step(rule)) {
+                return false;
+            }
+            if (oldBits != null) {
+                history.put(getGeneration(), getDimensionX(), getDimensionY(), oldBits);
             }
+            generationCount++;
+            return true;
         }
 
+        if (doubleBuffered) {
+            if (!hasSameDimensions(backBuffer, playField) || backBuffer == playField) {
+                backBuffer = new int[getDimensionY()][getDimensionX()];
+            }
+
+            // If the current play field has not changed -> return false
+            if (!computeNextGeneration(playField, backBuffer)) {
+                return false;
+            }
+
+            // The old play field is reused for the generation after the next one,
+            // so it can not be stored for stepping back
+            hash ^= stepStats.hashDelta;
+            livingCells = stepStats.livingCells;
+            int[][] swap = playField;
+            playField = backBuffer;
+            backBuffer = swap;
+            generationCount++;
+            return true;
+        }
+
+        int[][] newPlayField = new int[getDimensionY()][getDimensionX()];
+
         // If the current play field has not changed -> return false
-        if (Arrays.deepEquals(playField, newPlayField)) {
+        if (!computeNextGeneration(playField, newPlayField)) {
             return false;
         } else {
-            playFields.put(getGeneration(), playField);
+            history.put(getGeneration(), playField);
+            hash ^= stepStats.hashDelta;
+            livingCells = stepStats.livingCells;
             playField = newPlayField;
             generationCount++;
             return true;
         }
     }
 
+    /**
+     * Compute the next generation of a play field into another array
+     *
+     * @param current int[][] array which contains the current generation
+     * @param next    int[][] array with the same dimensions, which receives the next generation
+     * @return true if at least one cell has changed
+     */
+    private boolean computeNextGeneration(int[][] current, int[][] next) {
+        int dimensionY = current.length;
+        int bands = Math.min(parallelism * BANDS_PER_THREAD, dimensionY / MIN_BAND_ROWS);
+
+        if (rule.getRadius() > 1) {
+            // Larger than Life: the neighbours are counted with the summed-area table
+            summedAreaTable.build(current, rule.getRadius(), topology);
+        } else {
+            prepareHalo(current);
+        }
+
+        stepStats.reset();
+        if (stepPool == null || bands < 2) {
+            computeRows(current, next, 0, dimensionY, stepStats);
+        } else {
+            if (bandStats.length != bands) {
+                bandStats = new StepStats[bands];
+                for (int band = 0; band < bands; band++) {
+                    bandStats[band] = new StepStats();
+                }
+            }
+
+            stepPool.invoke(new StepBandsTask(current, next, 0, bands));
+
+            // Merge the results of the bands
+            for (StepStats band : bandStats) {
+                stepStats.add(band);
+            }
+        }
+
+        return stepStats.changedCells > 0;
+    }
+
+    /**
+     * Prepare the ghost rows above the first and below the last row for the topology
+     *
+     * @param current int[][] array which contains the current generation
+     */
+    private void prepareHalo(int[][] current) {
+        int dimensionY = current.length;
+        if (topology == Topology.BOUNDED || dimensionY == 0) {
+            haloAbove = null;
+            haloBelow = null;
+        } else if (topology == Topology.TORUS) {
+            // The rows on the other side can be used directly
+            haloAbove = current[dimensionY - 1];
+            haloBelow = current[0];
+        } else {
+            // Klein bottle: the rows on the other side are mirrored
+            int dimensionX = current[0].length;
+            if (mirroredRows[0].length != dimensionX) {
+                mirroredRows = new int[2][dimensionX];
+            }
+            haloAbove = mirroredRows[0];
+            haloBelow = mirroredRows[1];
+            for (int x = 0; x < dimensionX; x++) {
+                haloAbove[x] = current[dimensionY - 1][dimensionX - 1 - x];
+                haloBelow[x] = current[0][dimensionX - 1 - x];
+            }
+        }
+    }
+
+    /**
+     * Compute the next generation of a band of rows
+     *
+     * @param current int[][] array which contains the current generation
+     * @param next    int[][] array with the same dimensions, which receives the next generation
+     * @param yFrom   first row of the band
+     * @param yTo     row after the last row of the band
+     * @param stats   receives the amount of living and changed cells of the band
+     */
+    private void computeRows(int[][] current, int[][] next, int yFrom, int yTo, StepStats stats) {
+        int dimensionY = current.length;
+        int dimensionX = dimensionY > 0 ? current[0].length : 0;
+        boolean wrapColumns = topology != Topology.BOUNDED;
+        stats.reset();
+
+        if (rule.getRadius() > 1) {
+            for (int y = yFrom; y < yTo; y++) {
+                summedAreaTable.computeRow(current[y], next[y], y, rule, stats);
+            }
+            return;
+        }
+
+        for (int y = yFrom; y < yTo; y++) {
+            // Rows outside of the play field are the ghost rows of the topology (null = dead)
+            int[] above = y > 0 ? current[y - 1] : haloAbove;
+            int[] row = current[y];
+            int[] below = y + 1 < dimensionY ? current[y + 1] : haloBelow;
+            int[] nextRow = next[y];
+
+            // Ghost columns left and right of the play field (dead on the bounded play field)
+            int leftGhost = 0;
+            int rightGhost = 0;
+            if (wrapColumns && dimensionX > 0) {
+                leftGhost = StepKernel.column(above, row, below, dimensionX - 1);
+                rightGhost = StepKernel.column(above, row, below, 0);
+            }
+
+            kernel.computeRow(above, row, below, leftGhost, rightGhost, nextRow, y, rule, stats);
+        }
+    }
+
+    /**
+     * ForkJoin task, which splits the bands of rows until every task computes one band
+     */
+    private final class StepBandsTask extends RecursiveAction {
+        /**
+         * Version of the serialized form (the task is never serialized)
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Current generation
+         */
+        private final int[][] current;
+
+        /**
+         * Array for the next generation
+         */
+        private final int[][] next;
+
+        /**
+         * First band of the task
+         */
+        private final int bandFrom;
+
+        /**
+         * Band after the last band of the task
+         */
+        private final int bandTo;
+
+        /**
+         * StepBandsTask Constructor
+         *
+         * @param current  int[][] array which contains the current generation
+         * @param next     int[][] array, which receives the next generation
+         * @param bandFrom first band of the task
+         * @param bandTo   band after the last band of the task
+         */
+        StepBandsTask(int[][] current, int[][] next, int bandFrom, int bandTo) {
+            this.current = current;
+            this.next = next;
+            this.bandFrom = bandFrom;
+            this.bandTo = bandTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (bandTo - bandFrom > 1) {
+                int bandMid = (bandFrom + bandTo) >>> 1;
+                invokeAll(new StepBandsTask(current, next, bandFrom, bandMid),
+                        new StepBandsTask(current, next, bandMid, bandTo));
+            } else {
+                // Rows of the band; the rows are split as evenly as possible
+                int dimensionY = current.length;
+                int yFrom = (int) ((long) dimensionY * bandFrom / bandStats.length);
+                int yTo = (int) ((long) dimensionY * bandTo / bandStats.length);
+                computeRows(current, next, yFrom, yTo, bandStats[bandFrom]);
+            }
+        }
+    }
+
+    /**
+     * Check if two play field arrays have the same dimensions
+     *
+     * @param playField0 first play field
+     * @param playField1 second play field
+     * @return true if both arrays exist and have the same dimensions
+     */
+    private static boolean hasSameDimensions(int[][] playField0, int[][] playField1) {
+        if (playField0 == null || playField1 == null || playField0.length != playField1.length) {
+            return false;
+        }
+        return playField0.length == 0 || playField0[0].length == playField1[0].length;
+    }
+
+    /**
+     * Get the Zobrist hash of the play field (XOR of the Zobrist keys of all living cells).
+     * It is updated for every cell, which changes its state.
+     *
+     * @return 64 bit hash
+     */
+    public long getHash() {
+        if (engine != null) {
+            return engine.getHash();
+        }
+        return hash;
+    }
+
+    /**
+     * Check if the play field has entered a cycle (still life, blinker, ...).
+     * The cycle detection starts again, if the play field or the rules are changed.
+     *
+     * @return true if the play field repeats a previous generation
+     */
+    public boolean isCycleDetected() {
+        return cycleDetector.isCycleDetected();
+    }
+
+    /**
+     * Acknowledge the detected cycle (e.g. the game is continued after it has stopped on the cycle);
+     * the next cycle is detected again after the play field or the rules are changed
+     */
+    public void acknowledgeCycle() {
+        cycleDetector.acknowledge();
+    }
+
+    /**
+     * Check if the play field has entered a cycle, which has not been acknowledged
+     *
+     * @return true if the game should stop on the cycle
+     */
+    public boolean isNewCycleDetected() {
+        return cycleDetector.isCycleDetected() && !cycleDetector.isAcknowledged();
+    }
+
+    /**
+     * Get the period of the detected cycle
+     *
+     * @return period (1 = still life, 2 = e.g. blinker) or 0 if no cycle has been detected
+     */
+    public int getCyclePeriod() {
+        return cycleDetector.getPeriod();
+    }
+
+    /**
+     * Get the generation, in which the detected cycle starts
+     *
+     * @return generation or -1 if no cycle has been detected
+     */
+    public int getCycleStart() {
+        return cycleDetector.getCycleStart();
+    }
+
+    /**
+     * Get the amount of cells, which have changed their state in the last generation
+     * computed in the int array (without grid engine)
+     *
+     * @return amount of changed cells
+     */
+    public int getChangedCells() {
+        return stepStats.changedCells;
+    }
+
     /**
      * Get the play field to a specific generation
      *
@@ -356,25 +1189,108 @@ public class PlayField {
         if (generation < 0 || getGeneration() == generation) {
             return false;
         }
+        // Generations stepped in the double buffered mode are not stored
+        // (for an unbounded play field only the visible part is stored)
+        // (and the oldest generations are dropped, if the memory budget of the history is exceeded)
+        if (getGeneration() > generation && !history.contains(generation)) {
+            return false;
+        }
+
+        // The event is only created while it is recorded and after the checks above,
+        // so no event is abandoned by an early return
+        StepToEvent event = StepToEvent.TYPE.isEnabled() ? new StepToEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        int fromGeneration = getGeneration();
 
         if (getGeneration() > generation) {
-            playField = playFields.get(generation);
-            for (int i = generation + 1; i < playFields.size(); i++) {
-                playFields.remove(i);
-            }
+            // The generation is restored from the nearest keyframe;
+            // it is the current generation again, so it is removed from the history
+            setPlayField(history.get(generation));
+            history.removeFrom(generation);
 
             generationCount = generation;
         } else {
-            int startAt = getGeneration();
-            for (int i = startAt; i < generation; i++) {
-                stepForward();
-                analysis.addCellCount(getGeneration(), getLivingCells());
+            // Large jumps are fast-forwarded by HashLife,
+            // as far as the living cells stay away from the border of the play field
+            // (only for bounded play fields, HashLife gets the visible part of the field)
+            if (generation - getGeneration() >= hashLifeThreshold && HashLife.isSupported(rule)
+                    && (engine == null ? topology == Topology.BOUNDED : engine.isBounded())) {
+                fastForward(generation);
             }
+
+            advance(generation - getGeneration());
         }
 
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.dimensionX = getDimensionX();
+                event.dimensionY = getDimensionY();
+                event.fromGeneration = fromGeneration;
+                event.generation = getGeneration();
+                event.population = countLivingCells();
+                event.commit();
+            }
+        }
         return true;
     }
 
+    /**
+     * Get the play field forward by an amount of generations in one batch.
+     * <p>
+     * The amount of living cells of every generation is kept up to date by the step
+     * (no extra scan of the play field) and added to the analysis.
+     * The analysis GUI is not updated, the caller decides how often (e.g. once per drawn frame).
+     *
+     * @param generations amount of generations
+     * @return amount of advanced generations; less if the play field does not change anymore
+     */
+    public int advance(int generations) {
+        int advanced = 0;
+        while (advanced < generations && stepForward()) {
+            advanced++;
+            if (advanced == 1) {
+                // The generation before may not be in the analysis (e.g. stepped with stepForward)
+                analysis.addSkippedCellCount(getGeneration(), countLivingCells());
+            } else {
+                analysis.addCellCount(getGeneration(), countLivingCells());
+            }
+        }
+        return advanced;
+    }
+
+
+    /**
+     * Fast-forward the play field with HashLife towards a specific generation
+     *
+     * @param generation to which the play field is being updated
+     */
+    private void fastForward(int generation) {
+        int[][] oldPlayField = getPlayField();
+        int[][] newPlayField = new int[oldPlayField.length][];
+        for (int y = 0; y < oldPlayField.length; y++) {
+            newPlayField[y] = oldPlayField[y].clone();
+        }
+
+        HashLife hashLife = hashLifeCache.get();
+        if (hashLife == null || !hashLife.getRule().equals(rule)) {
+            hashLife = new HashLife(rule, HashLife.DEFAULT_MAX_NODES);
+            hashLifeCache = new SoftReference<>(hashLife);
+        }
+
+        long advanced = hashLife.advance(newPlayField, generation - getGeneration());
+        if (advanced > 0) {
+            if (!doubleBuffered) {
+                history.put(getGeneration(), oldPlayField);
+            }
+            setPlayField(newPlayField);
+            generationCount += (int) advanced;
+            analysis.addSkippedCellCount(getGeneration(), countLivingCells());
+        }
+    }
+
 
     /**
      * Call the updateAnalysis function in the Analysis class
@@ -0,0 +1,84 @@
+package gameoflife;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * CSV format of the presets (one line per row, the cells separated via ",")
+ * <p>
+ * It does not depend on JavaFX, so it is also used without the GUI (see HeadlessRunner).
+ *
+ * @author Richard Krikler
+ */
+public final class PresetCsv {
+    /**
+     * RegExp Pattern for a valid line of a preset
+     */
+    private static final Pattern VALID_LINE_PAT = Pattern.compile("^([10],)*[10]$");
+
+
+    /**
+     * PresetCsv Constructor (only static methods)
+     */
+    private PresetCsv() {
+    }
+
+
+    /**
+     * Convert the play field to CSV format
+     *
+     * @param playField PlayField Object containing the current play field
+     * @return String containing the play field
+     */
+    public static String format(PlayField playField) {
+        StringBuilder csv = new StringBuilder();
+
+        for (int y = 0; y < playField.getDimensionY(); y++) {
+            for (int x = 0; x < playField.getDimensionX(); x++) {
+                if (x + 1 < playField.getDimensionX()) {
+                    csv.append(playField.getCell(x, y)).append(",");
+                } else {
+                    csv.append(playField.getCell(x, y));
+                }
+            }
+            csv.append(System.lineSeparator());
+        }
+
+        return csv.toString();
+    }
+
+    /**
+     * Convert the CSV format from a file into the play field
+     *
+     * @param playField List of the Lines stored in the file
+     * @return int[][] array which contains the play field or null if the lines are not valid
+     */
+    public static int[][] parse(List<String> playField) {
+        if (playField.size() < 1) {
+            return null;
+        }
+
+        int[][] newPlayField = new int[playField.size()][];
+        int dimensionX = playField.get(0).split(",").length;
+        int dimensionY = playField.size();
+
+        for (int y = 0; y < dimensionY; y++) {
+            if (!VALID_LINE_PAT.matcher(playField.get(y)).matches()) {
+                return null;
+            }
+
+            String[] oneLineStAr = playField.get(y).split(",");
+            if (oneLineStAr.length != dimensionX) {
+                return null;
+            }
+
+            int[] oneLineIntAr = new int[dimensionX];
+            for (int x = 0; x < dimensionX; x++) {
+                oneLineIntAr[x] = oneLineStAr[x].charAt(0) - '0';
+            }
+            newPlayField[y] = oneLineIntAr;
+        }
+
+        return newPlayField;
+    }
+}
@@ -0,0 +1,57 @@
+package gameoflife;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of reading or writing a preset file
+ * (see PresetManager.loadPreset and PresetManager.savePreset)
+ *
+ * @author Richard Krikler
+ */
+@Name("gameoflife.PresetIO")
+@Label("Preset I/O")
+@Category("Game Of Life")
+@Description("Reading or writing of a preset (CSV) file")
+final class PresetIoEvent extends Event {
+    /**
+     * Operation: "load" or "save"
+     */
+    @Label("Operation")
+    String operation;
+
+    /**
+     * Path of the preset file
+     */
+    @Label("Path")
+    String path;
+
+    /**
+     * Amount of read or written bytes
+     */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * x dimension of the play field; 0 if the preset is not valid
+     */
+    @Label("Dimension X")
+    int dimensionX;
+
+    /**
+     * y dimension of the play field; 0 if the preset is not valid
+     */
+    @Label("Dimension Y")
+    int dimensionY;
+
+    /**
+     * True if the preset has been read or written
+     */
+    @Label("Success")
+    boolean success;
+}
@@ -11,7 +11,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Preset Manager for storing preset locations, reading / writing presets
@@ -110,8 +109,24 @@ public class PresetManager {
      * @return int[][] array which contains the play field of the preset
      */
     public int[][] loadPreset(Path srcPath) {
+        PresetIoEvent event = new PresetIoEvent();
+        event.begin();
         try {
-            int[][] newPlayField = loadFromCSV(Files.readAllLines(srcPath));
+            List<String> lines = Files.readAllLines(srcPath);
+            int[][] newPlayField = loadFromCSV(lines);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "load";
+                event.path = srcPath.toString();
+                event.bytes = Files.size(srcPath);
+                event.success = newPlayField != null;
+                if (newPlayField != null) {
+                    event.dimensionX = newPlayField[0].length;
+                    event.dimensionY = newPlayField.length;
+                }
+                event.commit();
+            }
+
             if (newPlayField == null) {
                 GuiLogic.errorDialog(stage,
                         "Loading File",
@@ -167,8 +182,23 @@ public class PresetManager {
      * @return true if saving the play field was successful
      */
     public boolean savePreset(Path destPath, PlayField playField) {
+        PresetIoEvent event = new PresetIoEvent();
+        event.begin();
         try {
-            Files.writeString(destPath, convertToCSV(playField));
+            String csv = convertToCSV(playField);
+            Files.writeString(destPath, csv);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "save";
+                event.path = destPath.toString();
+                // The CSV only contains ASCII characters (one byte per character)
+                event.bytes = csv.length();
+                event.dimensionX = playField.getDimensionX();
+                event.dimensionY = playField.getDimensionY();
+                event.success = true;
+                event.commit();
+            }
+
             loadPresetsToMap();
             return true;
         } catch (IOException ioException) {
@@ -207,20 +237,7 @@ public class PresetManager {
      * @return String containing the play field
      */
     public String convertToCSV(PlayField playField) {
-        StringBuilder csv = new StringBuilder();
-
-        for (int y = 0; y < playField.getDimensionY(); y++) {
-            for (int x = 0; x < playField.getDimensionX(); x++) {
-                if (x + 1 < playField.getDimensionX()) {
-                    csv.append(playField.getCell(x, y)).append(",");
-                } else {
-                    csv.append(playField.getCell(x, y));
-                }
-            }
-            csv.append(System.lineSeparator());
-        }
-
-        return csv.toString();
+        return PresetCsv.format(playField);
     }
 
 
@@ -231,29 +248,6 @@ public class PresetManager {
      * @return true if the conversion was successful
      */
     public int[][] loadFromCSV(List<String> playField) {
-        if (playField.size() < 1) {
-            return null;
-        }
-
-        Pattern validLine = Pattern.compile("^([10],)*[10]$");
-        int[][] newPlayField = new int[playField.size()][];
-        int dimensionX = playField.get(0).split(",").length;
-        int dimensionY = playField.size();
-
-        for (int y = 0; y < dimensionY; y++) {
-            if (!validLine.matcher(playField.get(y)).matches()) {
-                return null;
-            }
-
-            String[] oneLineStAr = playField.get(y).split(",");
-            if (oneLineStAr.length != dimensionX) {
-                return null;
-            }
-
-            int[] oneLineIntAr = GuiLogic.stringArToIntAr(oneLineStAr);
-            newPlayField[y] = oneLineIntAr;
-        }
-
-        return newPlayField;
+        return PresetCsv.parse(playField);
     }
 }
@@ -0,0 +1,51 @@
+package gameoflife;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of the drawing of the play field (see GuiLogic.drawPlayField).
+ * It is only created while it is recorded (see TYPE), so a drawn frame does not allocate otherwise.
+ *
+ * @author Richard Krikler
+ */
+@Name("gameoflife.Render")
+@Label("Render")
+@Category("Game Of Life")
+@Description("Drawing of the play field to the canvas")
+@StackTrace(false)
+final class RenderEvent extends Event {
+    /**
+     * Type of the event; enabled while a recording of the event is running
+     */
+    static final EventType TYPE = EventType.getEventType(RenderEvent.class);
+
+    /**
+     * x dimension of the play field
+     */
+    @Label("Dimension X")
+    int dimensionX;
+
+    /**
+     * y dimension of the play field
+     */
+    @Label("Dimension Y")
+    int dimensionY;
+
+    /**
+     * Drawn generation
+     */
+    @Label("Generation")
+    int generation;
+
+    /**
+     * Amount of living cells of the drawn generation
+     */
+    @Label("Population")
+    int population;
+}
@@ -0,0 +1,420 @@
+package gameoflife;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Game rules (reanimate rule and keep life rule), compiled into primitive lookup tables
+ * <p>
+ * A Rule is immutable, changing a rule creates a new Rule object.
+ * <p>
+ * Rules with a radius larger than 1 are Larger than Life rules: the neighbours of a cell
+ * are all cells of the (2 * radius + 1) x (2 * radius + 1) square around it.
+ *
+ * @author Richard Krikler
+ */
+public final class Rule {
+    /**
+     * RegExp Pattern for the standard rule notation, e.g. "B3/S23"
+     */
+    private static final Pattern BS_RULE_PAT = Pattern.compile("^[Bb](\\d*)/[Ss](\\d*)$");
+
+    /**
+     * RegExp Pattern for the Larger than Life notation, e.g. "R5,B34-45,S33-57"
+     * (numbers and ranges of numbers, separated with a comma)
+     */
+    private static final Pattern LTL_RULE_PAT = Pattern.compile(
+            "^[Rr](\\d{1,2}),[Bb]((?:\\d{1,4}(?:-\\d{1,4})?,)*(?:\\d{1,4}(?:-\\d{1,4})?)?),"
+                    + "[Ss]((?:\\d{1,4}(?:-\\d{1,4})?,)*(?:\\d{1,4}(?:-\\d{1,4})?)?)$");
+
+    /**
+     * Largest supported radius of the neighbourhood
+     */
+    public static final int MAX_RADIUS = 16;
+
+    /**
+     * Amount of possible 3x3 neighbourhoods (9 cells -> 2^9)
+     */
+    private static final int NEIGHBOURHOODS = 512;
+
+    /**
+     * Bit of the cell itself in a 3x3 neighbourhood index
+     */
+    private static final int CENTER_BIT = 4;
+
+    /**
+     * Radius of the neighbourhood; 1 = Moore neighbourhood
+     */
+    private final int radius;
+
+    /**
+     * Sorted numbers of living cells needed to make a dead cell alive
+     */
+    private final int[] reanimateRule;
+
+    /**
+     * Sorted numbers of living cells needed to keep a cell alive
+     */
+    private final int[] keepLifeRule;
+
+    /**
+     * Bit mask of the reanimate rule; bit n is set if n living neighbours reanimate a dead cell
+     */
+    private final int reanimateMask;
+
+    /**
+     * Bit mask of the keep life rule; bit n is set if n living neighbours keep a cell alive
+     */
+    private final int keepLifeMask;
+
+    /**
+     * Next state of a cell, indexed by (living neighbours * 2 + current state)
+     */
+    private final byte[] transitionTable;
+
+    /**
+     * Next state of a cell, indexed by its complete 3x3 neighbourhood
+     * <p>
+     * Every column contributes 3 bits (above = 4, current row = 2, below = 1),
+     * the left column is stored in the bits 6-8, the middle column in 3-5 and the right column in 0-2.
+     */
+    private final byte[] neighbourhoodTable = new byte[NEIGHBOURHOODS];
+
+
+    /**
+     * Rule Constructor
+     *
+     * @param reanimateRule numbers of living cells needed to make a dead cell alive
+     * @param keepLifeRule  numbers of living cells needed to keep a cell alive
+     */
+    public Rule(int[] reanimateRule, int[] keepLifeRule) {
+        this(1, reanimateRule, keepLifeRule);
+    }
+
+    /**
+     * Rule Constructor for a Larger than Life rule
+     *
+     * @param radius        radius of the neighbourhood; 1 = Moore neighbourhood
+     * @param reanimateRule numbers of living cells needed to make a dead cell alive
+     * @param keepLifeRule  numbers of living cells needed to keep a cell alive
+     * @throws IllegalArgumentException if the radius is not between 1 and MAX_RADIUS
+     */
+    public Rule(int radius, int[] reanimateRule, int[] keepLifeRule) {
+        if (radius < 1 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("The radius has to be between 1 and " + MAX_RADIUS + "!");
+        }
+        this.radius = radius;
+        this.reanimateRule = Arrays.stream(reanimateRule).distinct().sorted().toArray();
+        this.keepLifeRule = Arrays.stream(keepLifeRule).distinct().sorted().toArray();
+        reanimateMask = toMask(this.reanimateRule);
+        keepLifeMask = toMask(this.keepLifeRule);
+
+        int maxNeighbours = getMaxNeighbours();
+        for (int neededCells : this.reanimateRule) {
+            maxNeighbours = Math.max(maxNeighbours, neededCells);
+        }
+        for (int neededCells : this.keepLifeRule) {
+            maxNeighbours = Math.max(maxNeighbours, neededCells);
+        }
+
+        transitionTable = new byte[(maxNeighbours + 1) * 2];
+        for (int neededCells : this.reanimateRule) {
+            if (neededCells >= 0) {
+                transitionTable[neededCells * 2] = 1;
+            }
+        }
+        for (int neededCells : this.keepLifeRule) {
+            if (neededCells >= 0) {
+                transitionTable[neededCells * 2 + 1] = 1;
+            }
+        }
+
+        for (int neighbourhood = 0; neighbourhood < NEIGHBOURHOODS; neighbourhood++) {
+            int state = (neighbourhood >>> CENTER_BIT) & 1;
+            int livingNeighbours = Integer.bitCount(neighbourhood) - state;
+            neighbourhoodTable[neighbourhood] = (byte) nextState(state, livingNeighbours);
+        }
+    }
+
+
+    /**
+     * Create a rule from the standard rule notation, e.g. "B3/S23"
+     *
+     * @param rule String of the rule, B = numbers for the reanimate rule, S = numbers for the keep life rule
+     * @return compiled rule
+     * @throws IllegalArgumentException if the String is not a valid rule
+     */
+    public static Rule parse(String rule) {
+        Matcher matcher = BS_RULE_PAT.matcher(rule.trim());
+        if (matcher.matches()) {
+            return new Rule(digitsToIntAr(matcher.group(1)), digitsToIntAr(matcher.group(2)));
+        }
+
+        matcher = LTL_RULE_PAT.matcher(rule.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("The rule (\"" + rule + "\") is not valid!");
+        }
+        return new Rule(Integer.parseInt(matcher.group(1)),
+                rangesToIntAr(matcher.group(2)), rangesToIntAr(matcher.group(3)));
+    }
+
+    /**
+     * Check if a String is a rule in the standard rule notation, e.g. "B3/S23",
+     * or in the Larger than Life notation, e.g. "R5,B34-45,S33-57"
+     *
+     * @param rule String of the rule
+     * @return true if the rule can be parsed
+     */
+    public static boolean isValid(String rule) {
+        if (BS_RULE_PAT.matcher(rule.trim()).matches()) {
+            return true;
+        }
+        Matcher matcher = LTL_RULE_PAT.matcher(rule.trim());
+        if (!matcher.matches()) {
+            return false;
+        }
+        int radius = Integer.parseInt(matcher.group(1));
+        return radius >= 1 && radius <= MAX_RADIUS;
+    }
+
+    /**
+     * Convert the numbers of a rule, separated via ",", into an int array, e.g. "2,3" -> {2, 3}
+     *
+     * @param cellsNeeded String of the numbers of living cells, separated via ","
+     * @return int array
+     * @throws NumberFormatException if a part is not a number
+     */
+    public static int[] parseCounts(String cellsNeeded) {
+        String[] counts = cellsNeeded.split(",");
+        int[] result = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            result[i] = Integer.parseInt(counts[i].trim());
+        }
+        return result;
+    }
+
+    /**
+     * Create a new rule with another reanimate rule
+     *
+     * @param cellsNeeded cells needed to reanimate a dead cell
+     * @return new rule
+     */
+    public Rule withReanimateRule(int... cellsNeeded) {
+        return new Rule(radius, cellsNeeded, keepLifeRule);
+    }
+
+    /**
+     * Create a new rule with another keep life rule
+     *
+     * @param cellsNeeded cells needed to keep a cell alive
+     * @return new rule
+     */
+    public Rule withKeepLifeRule(int... cellsNeeded) {
+        return new Rule(radius, reanimateRule, cellsNeeded);
+    }
+
+
+    /**
+     * Get the next state of a cell
+     *
+     * @param state            current state of the cell; 1 = alive, 0 = dead
+     * @param livingNeighbours amount of living neighbours
+     * @return next state of the cell; 1 = alive, 0 = dead
+     */
+    public int nextState(int state, int livingNeighbours) {
+        int index = livingNeighbours * 2 + state;
+        if (state < 0 || state > 1 || livingNeighbours < 0 || index >= transitionTable.length) {
+            return 0;
+        }
+        return transitionTable[index];
+    }
+
+    /**
+     * Get the radius of the neighbourhood
+     *
+     * @return radius; 1 = Moore neighbourhood
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Get the amount of neighbours of a cell
+     *
+     * @return amount of cells in the square around a cell, without the cell itself
+     */
+    public int getMaxNeighbours() {
+        int side = 2 * radius + 1;
+        return side * side - 1;
+    }
+
+    /**
+     * Get the lookup table for complete 3x3 neighbourhoods (only used for the radius 1)
+     *
+     * @return next state of a cell, indexed by its 3x3 neighbourhood
+     */
+    byte[] getNeighbourhoodTable() {
+        return neighbourhoodTable;
+    }
+
+    /**
+     * Get the bit mask of the reanimate rule
+     *
+     * @return bit mask; bit n is set if n living neighbours reanimate a dead cell
+     */
+    public int getReanimateMask() {
+        return reanimateMask;
+    }
+
+    /**
+     * Get the bit mask of the keep life rule
+     *
+     * @return bit mask; bit n is set if n living neighbours keep a cell alive
+     */
+    public int getKeepLifeMask() {
+        return keepLifeMask;
+    }
+
+
+    /**
+     * Get the cells needed for reanimation.
+     *
+     * @return String of the Reanimation Rule, separated via ","
+     */
+    public String getReanimateRule() {
+        return joinRule(reanimateRule, ",");
+    }
+
+    /**
+     * Get the cells needed to keep a cell alive.
+     *
+     * @return String of the Keep Alive Rule, separated via ","
+     */
+    public String getKeepLifeRule() {
+        return joinRule(keepLifeRule, ",");
+    }
+
+    /**
+     * Get the rule in the standard rule notation
+     * or in the Larger than Life notation, if the radius is larger than 1
+     *
+     * @return String of the rule, e.g. "B3/S23" or "R5,B34-45,S33-57"
+     */
+    @Override
+    public String toString() {
+        if (radius > 1) {
+            return "R" + radius + ",B" + joinRanges(reanimateRule) + ",S" + joinRanges(keepLifeRule);
+        }
+        return "B" + joinRule(reanimateRule, "") + "/S" + joinRule(keepLifeRule, "");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Rule)) {
+            return false;
+        }
+        Rule rule = (Rule) o;
+        return radius == rule.radius
+                && Arrays.equals(reanimateRule, rule.reanimateRule)
+                && Arrays.equals(keepLifeRule, rule.keepLifeRule);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * radius + Arrays.hashCode(reanimateRule)) + Arrays.hashCode(keepLifeRule);
+    }
+
+
+    /**
+     * Convert the numbers of a rule into a bit mask
+     *
+     * @param rule numbers of living cells
+     * @return bit mask; bit n is set if the rule contains n
+     */
+    private static int toMask(int[] rule) {
+        int mask = 0;
+        for (int neededCells : rule) {
+            if (neededCells >= 0 && neededCells < Integer.SIZE) {
+                mask |= 1 << neededCells;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Join the numbers of a rule to a String
+     *
+     * @param rule      numbers of living cells
+     * @param delimiter delimiter between the numbers
+     * @return String of the rule
+     */
+    private static String joinRule(int[] rule, String delimiter) {
+        StringJoiner joiner = new StringJoiner(delimiter);
+        for (int neededCells : rule) {
+            joiner.add(Integer.toString(neededCells));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Join the numbers of a rule to a String, consecutive numbers are joined to a range, e.g. "3,5-7"
+     *
+     * @param rule sorted numbers of living cells
+     * @return String of the rule
+     */
+    private static String joinRanges(int[] rule) {
+        StringJoiner joiner = new StringJoiner(",");
+        int i = 0;
+        while (i < rule.length) {
+            int end = i;
+            while (end + 1 < rule.length && rule[end + 1] == rule[end] + 1) {
+                end++;
+            }
+            joiner.add(end == i ? Integer.toString(rule[i]) : rule[i] + "-" + rule[end]);
+            i = end + 1;
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Convert a String of numbers and ranges to an int array, e.g. "3,5-7" -> {3, 5, 6, 7}
+     *
+     * @param ranges String of numbers and ranges, separated with a comma
+     * @return int array
+     */
+    private static int[] rangesToIntAr(String ranges) {
+        if (ranges.isEmpty()) {
+            return new int[0];
+        }
+        return Arrays.stream(ranges.split(","))
+                .flatMapToInt(range -> {
+                    int dash = range.indexOf('-');
+                    if (dash < 0) {
+                        return IntStream.of(Integer.parseInt(range));
+                    }
+                    return IntStream.rangeClosed(Integer.parseInt(range.substring(0, dash)),
+                            Integer.parseInt(range.substring(dash + 1)));
+                })
+                .toArray();
+    }
+
+    /**
+     * Convert a String of digits to an int array, e.g. "23" -> {2, 3}
+     *
+     * @param digits String of digits
+     * @return int array
+     */
+    private static int[] digitsToIntAr(String digits) {
+        int[] result = new int[digits.length()];
+        for (int i = 0; i < digits.length(); i++) {
+            result[i] = Character.digit(digits.charAt(i), 10);
+        }
+        return result;
+    }
+}
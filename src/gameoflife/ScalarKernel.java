@@ -0,0 +1,46 @@
+package gameoflife;
+
+/**
+ * Scalar step kernel: the 3x3 neighbourhood of every cell is kept as a 9 bit index,
+ * which is shifted by one column per cell and looked up in the rule table
+ *
+ * @author Richard Krikler
+ */
+final class ScalarKernel implements StepKernel {
+    /**
+     * Mask of the 9 bit neighbourhood index (3x3 cells)
+     */
+    private static final int NEIGHBOURHOOD_MASK = 0x1FF;
+
+
+    @Override
+    public void computeRow(int[] above, int[] row, int[] below, int leftGhost, int rightGhost,
+                           int[] nextRow, int posY, Rule rule, StepStats stats) {
+        byte[] neighbourhoodTable = rule.getNeighbourhoodTable();
+        int dimensionX = row.length;
+        int livingCells = 0;
+        int changedCells = 0;
+        long hashDelta = 0L;
+
+        // The neighbourhood starts with the left ghost column
+        int neighbourhood = dimensionX > 0 ? (leftGhost << 3) | StepKernel.column(above, row, below, 0) : 0;
+
+        for (int x = 0; x < dimensionX; x++) {
+            int rightColumn = x + 1 < dimensionX ? StepKernel.column(above, row, below, x + 1) : rightGhost;
+            neighbourhood = ((neighbourhood << 3) | rightColumn) & NEIGHBOURHOOD_MASK;
+
+            // Look up the next state of the cell in the rule table
+            int cell = neighbourhoodTable[neighbourhood];
+            nextRow[x] = cell;
+            livingCells += cell;
+            if (cell != row[x]) {
+                changedCells++;
+                hashDelta ^= Zobrist.key(x, posY);
+            }
+        }
+
+        stats.livingCells += livingCells;
+        stats.changedCells += changedCells;
+        stats.hashDelta ^= hashDelta;
+    }
+}
@@ -0,0 +1,125 @@
+package gameoflife;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free handoff between the thread, which steps the play field (the owner), and the other threads
+ * - the owner publishes an immutable snapshot after every change of the play field;
+ *   readers always get the complete latest snapshot and never block the owner
+ * - the other threads do not change the play field, they queue edits,
+ *   which the owner applies before its next step
+ * <p>
+ * There is only one owner at a time (single writer): the simulation thread while the game is running,
+ * the JavaFX thread while it is paused.
+ * <p>
+ * An owner, which steps faster than the generations are drawn, only publishes a snapshot
+ * when the renderer has requested the next one (see publishIfRequested),
+ * so the play field is copied at most once per drawn frame.
+ *
+ * @author Richard Krikler
+ */
+public final class SnapshotHandoff {
+    /**
+     * Latest published snapshot; null before the first publication
+     */
+    private final AtomicReference<GenerationSnapshot> latest = new AtomicReference<>();
+
+    /**
+     * Edits of the play field, which have not been applied yet
+     */
+    private final Queue<Consumer<PlayField>> edits = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True if the renderer waits for a new snapshot
+     */
+    private final AtomicBoolean requested = new AtomicBoolean(true);
+
+
+    /**
+     * Publish the current generation of the play field (only called by the owner)
+     *
+     * @param playField play field of the owner
+     * @return published snapshot
+     */
+    public GenerationSnapshot publish(PlayField playField) {
+        requested.set(false);
+        GenerationSnapshot snapshot = playField.snapshot();
+        // The snapshot is completely written, before it can be seen by the readers
+        latest.setRelease(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Publish the current generation of the play field,
+     * if the renderer has requested a new snapshot (only called by the owner)
+     *
+     * @param playField play field of the owner
+     * @return true if a snapshot has been published
+     */
+    public boolean publishIfRequested(PlayField playField) {
+        if (!requested.get()) {
+            return false;
+        }
+        publish(playField);
+        return true;
+    }
+
+    /**
+     * Request a new snapshot, e.g. after the latest snapshot has been drawn
+     */
+    public void requestSnapshot() {
+        requested.set(true);
+    }
+
+    /**
+     * Get the latest published snapshot
+     *
+     * @return snapshot or null if nothing has been published yet
+     */
+    public GenerationSnapshot getLatest() {
+        return latest.getAcquire();
+    }
+
+
+    /**
+     * Queue an edit of the play field; it is applied by the owner (see applyEdits)
+     *
+     * @param edit changes the play field, e.g. playField -> playField.setCell(2, 3, 1)
+     */
+    public void queueEdit(Consumer<PlayField> edit) {
+        edits.add(edit);
+    }
+
+    /**
+     * Check if there are edits, which have not been applied yet
+     *
+     * @return true if edits are queued
+     */
+    public boolean hasPendingEdits() {
+        return !edits.isEmpty();
+    }
+
+    /**
+     * Apply the queued edits in the order, in which they have been queued (only called by the owner);
+     * if at least one edit has been applied, the changed play field is published
+     *
+     * @param playField play field of the owner
+     * @return amount of applied edits
+     */
+    public int applyEdits(PlayField playField) {
+        int applied = 0;
+        Consumer<PlayField> edit;
+        while ((edit = edits.poll()) != null) {
+            edit.accept(playField);
+            applied++;
+        }
+        if (applied > 0) {
+            publish(playField);
+        }
+        return applied;
+    }
+}
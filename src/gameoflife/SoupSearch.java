@@ -0,0 +1,350 @@
+package gameoflife;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Search for long-lived patterns in random soups
+ * - many small independent play fields are run concurrently on a work-stealing pool
+ * - every soup runs until it is stable or repeats itself (or the maximum of generations is reached)
+ * - the best K soups by lifespan (and final population) are kept,
+ *   soups with the same final pattern (same canonical hash) are only kept once
+ * <p>
+ * The result only depends on the seed, not on the amount of threads.
+ *
+ * @author Richard Krikler
+ */
+public class SoupSearch {
+    /**
+     * Highest period, for which all phases are hashed to find the canonical hash of an oscillator
+     */
+    private static final int MAX_HASHED_PHASES = 64;
+
+    /**
+     * Order of the results: longest lifespan first, then the largest final population, then the seed
+     */
+    private static final Comparator<Result> RANKING = Comparator
+            .comparingInt(Result::getLifespan).reversed()
+            .thenComparing(Comparator.comparingInt(Result::getPopulation).reversed())
+            .thenComparingLong(Result::getSeed);
+
+    /**
+     * x dimension of every soup
+     */
+    private final int dimensionX;
+
+    /**
+     * y dimension of every soup
+     */
+    private final int dimensionY;
+
+    /**
+     * Game rules of the soups
+     */
+    private final Rule rule;
+
+    /**
+     * Probability of a living cell in a new soup
+     */
+    private final double density;
+
+    /**
+     * Maximum amount of generations of a soup
+     */
+    private final int maxGenerations;
+
+    /**
+     * Amount of kept results
+     */
+    private final int topK;
+
+    /**
+     * Amount of threads of the search
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Best results, ordered by the ranking
+     */
+    private final TreeSet<Result> best = new TreeSet<>(RANKING);
+
+    /**
+     * Best result of every canonical hash, which is in the best results
+     */
+    private final Map<Long, Result> bestByHash = new HashMap<>();
+
+
+    /**
+     * SoupSearch Constructor
+     *
+     * @param dimensionX     x dimension of every soup
+     * @param dimensionY     y dimension of every soup
+     * @param rule           game rules of the soups
+     * @param density        probability of a living cell in a new soup (0 to 1)
+     * @param maxGenerations maximum amount of generations of a soup
+     * @param topK           amount of kept results
+     */
+    public SoupSearch(int dimensionX, int dimensionY, Rule rule,
+                      double density, int maxGenerations, int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("At least one result has to be kept!");
+        }
+        this.dimensionX = dimensionX;
+        this.dimensionY = dimensionY;
+        this.rule = rule;
+        this.density = density;
+        this.maxGenerations = maxGenerations;
+        this.topK = topK;
+    }
+
+
+    /**
+     * Set the amount of threads of the search
+     *
+     * @param parallelism amount of threads; 1 = sequential
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism has to be at least 1!");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Get the amount of threads of the search
+     *
+     * @return amount of threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+
+    /**
+     * Run a batch of soups; the results are added to the results of the batches before
+     *
+     * @param seed  seed of the batch; every soup gets its own seed, derived from it
+     * @param soups amount of soups
+     * @return best results so far, ordered by the ranking
+     */
+    public List<Result> search(long seed, int soups) {
+        if (parallelism == 1) {
+            for (int soup = 0; soup < soups; soup++) {
+                offer(runSoup(soupSeed(seed, soup)));
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, soups).parallel()
+                        .forEach(soup -> offer(runSoup(soupSeed(seed, soup))))).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return getResults();
+    }
+
+    /**
+     * Get the best results so far
+     *
+     * @return results, ordered by the ranking (best first)
+     */
+    public synchronized List<Result> getResults() {
+        return new ArrayList<>(best);
+    }
+
+    /**
+     * Remove all results
+     */
+    public synchronized void clear() {
+        best.clear();
+        bestByHash.clear();
+    }
+
+
+    /**
+     * Get the seed of a soup of a batch
+     *
+     * @param seed seed of the batch
+     * @param soup index of the soup in the batch
+     * @return seed of the soup
+     */
+    private static long soupSeed(long seed, int soup) {
+        return new SplittableRandom(seed + soup * 0x9E3779B97F4A7C15L).nextLong();
+    }
+
+    /**
+     * Run one soup until it is stable, repeats itself or reaches the maximum of generations
+     *
+     * @param seed seed of the soup
+     * @return result of the soup
+     */
+    Result runSoup(long seed) {
+        PlayField playField = new PlayField(dimensionX, dimensionY);
+        playField.setRule(rule);
+        // The previous generations are not needed
+        playField.setDoubleBuffered(true);
+        playField.placeRandomly(seed, density);
+
+        while (playField.getGeneration() < maxGenerations && !playField.isCycleDetected()) {
+            playField.stepForward();
+        }
+
+        int period = playField.isCycleDetected() ? playField.getCyclePeriod() : 0;
+        int lifespan = playField.isCycleDetected() ? playField.getCycleStart() : playField.getGeneration();
+        int population = countLiving(playField.getPlayField());
+
+        // The phases of an oscillator are different patterns; the smallest hash of all phases is used
+        long canonicalHash = Zobrist.canonicalHash(playField.getPlayField());
+        for (int phase = 1; phase < Math.min(period, MAX_HASHED_PHASES); phase++) {
+            playField.stepForward();
+            canonicalHash = Math.min(canonicalHash, Zobrist.canonicalHash(playField.getPlayField()));
+        }
+
+        return new Result(seed, lifespan, period, population, canonicalHash);
+    }
+
+    /**
+     * Add a result to the best results, if it is good enough and not a duplicate of a better one
+     *
+     * @param result result of a soup
+     */
+    private synchronized void offer(Result result) {
+        Result duplicate = bestByHash.get(result.canonicalHash);
+        if (duplicate != null) {
+            if (RANKING.compare(result, duplicate) >= 0) {
+                return;
+            }
+            best.remove(duplicate);
+        }
+
+        best.add(result);
+        bestByHash.put(result.canonicalHash, result);
+        if (best.size() > topK) {
+            bestByHash.remove(best.pollLast().canonicalHash);
+        }
+    }
+
+    /**
+     * Count the living cells of a play field
+     *
+     * @param playField int[][] array which contains the play field
+     * @return amount of living cells
+     */
+    private static int countLiving(int[][] playField) {
+        int livingCells = 0;
+        for (int[] row : playField) {
+            for (int cell : row) {
+                livingCells += cell;
+            }
+        }
+        return livingCells;
+    }
+
+
+    /**
+     * Result of one soup
+     */
+    public static final class Result {
+        /**
+         * Seed of the soup (see PlayField.placeRandomly(long, double))
+         */
+        private final long seed;
+
+        /**
+         * Generation, from which the soup is stable or repeats itself
+         * (the maximum of generations, if it has not settled)
+         */
+        private final int lifespan;
+
+        /**
+         * Period of the final pattern; 1 = stable, 0 = not settled within the maximum of generations
+         */
+        private final int period;
+
+        /**
+         * Amount of living cells at the end
+         */
+        private final int population;
+
+        /**
+         * Canonical hash of the final pattern (see Zobrist.canonicalHash)
+         */
+        private final long canonicalHash;
+
+
+        /**
+         * Result Constructor
+         *
+         * @param seed          seed of the soup
+         * @param lifespan      generation, from which the soup is stable or repeats itself
+         * @param period        period of the final pattern; 0 = not settled
+         * @param population    amount of living cells at the end
+         * @param canonicalHash canonical hash of the final pattern
+         */
+        Result(long seed, int lifespan, int period, int population, long canonicalHash) {
+            this.seed = seed;
+            this.lifespan = lifespan;
+            this.period = period;
+            this.population = population;
+            this.canonicalHash = canonicalHash;
+        }
+
+        /**
+         * Get the seed of the soup
+         *
+         * @return seed for PlayField.placeRandomly(long, double)
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Get the generation, from which the soup is stable or repeats itself
+         *
+         * @return lifespan in generations
+         */
+        public int getLifespan() {
+            return lifespan;
+        }
+
+        /**
+         * Get the period of the final pattern
+         *
+         * @return period; 1 = stable, 0 = not settled within the maximum of generations
+         */
+        public int getPeriod() {
+            return period;
+        }
+
+        /**
+         * Get the amount of living cells at the end
+         *
+         * @return final population
+         */
+        public int getPopulation() {
+            return population;
+        }
+
+        /**
+         * Get the canonical hash of the final pattern
+         *
+         * @return hash, which is independent of the position and orientation of the pattern
+         */
+        public long getCanonicalHash() {
+            return canonicalHash;
+        }
+
+        @Override
+        public String toString() {
+            return "seed " + seed + ": lifespan " + lifespan + ", period " + period + ", population " + population;
+        }
+    }
+}
@@ -0,0 +1,552 @@
+package gameoflife;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grid engine for an unbounded play field
+ * - only chunks of 64x64 cells, which contain living cells, are stored
+ *   (one long per row of a chunk, in a map with the chunk coordinates as key)
+ * - chunks are created when living cells reach them and freed when they are empty
+ * - the dimensions are only the visible part of the play field (starting at 0, 0),
+ *   cells outside of it still live on and can come back
+ * - only chunks, which have changed in the last generation or touch such a chunk, are computed
+ *
+ * @author Richard Krikler
+ */
+public class SparseGrid implements GridEngine {
+    /**
+     * Amount of cells per row and column of a chunk
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    /**
+     * Shift to get from a cell position to the chunk position
+     */
+    private static final int CHUNK_SHIFT = 6;
+
+    /**
+     * Rows of a missing chunk (all cells dead)
+     */
+    private static final long[] EMPTY_ROWS = new long[CHUNK_SIZE];
+
+    /**
+     * Stored chunks, with the packed chunk position as key
+     */
+    private final LongHashMap<Chunk> chunks = new LongHashMap<>();
+
+    /**
+     * Chunks of the current step (reused to avoid allocations)
+     */
+    private final List<Chunk> stepChunks = new ArrayList<>();
+
+    /**
+     * Chunks, which are computed in the current step
+     */
+    private final List<Chunk> activeChunks = new ArrayList<>();
+
+    /**
+     * x dimension of the visible part
+     */
+    private int dimensionX;
+
+    /**
+     * y dimension of the visible part
+     */
+    private int dimensionY;
+
+    /**
+     * Amount of living cells on the whole plane
+     */
+    private int livingCells;
+
+    /**
+     * Zobrist hash of the living cells, updated for every cell, which changes its state
+     */
+    private long hash;
+
+    /**
+     * Amount of chunks computed in the last generation
+     */
+    private int updatedChunks;
+
+    /**
+     * Game rules of the last step; if the rules change, every chunk has to be computed again
+     */
+    private Rule lastRule;
+
+
+    /**
+     * SparseGrid Constructor
+     *
+     * @param dimensionX x dimension of the visible part
+     * @param dimensionY y dimension of the visible part
+     */
+    public SparseGrid(int dimensionX, int dimensionY) {
+        setSize(dimensionX, dimensionY);
+    }
+
+
+    @Override
+    public void setSize(int dimensionX, int dimensionY) {
+        this.dimensionX = dimensionX;
+        this.dimensionY = dimensionY;
+        chunks.clear();
+        livingCells = 0;
+        hash = 0L;
+    }
+
+    @Override
+    public int getDimensionX() {
+        return dimensionX;
+    }
+
+    @Override
+    public int getDimensionY() {
+        return dimensionY;
+    }
+
+
+    /**
+     * Get the stored value of a specific cell; the position can be outside of the visible part.
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     * @return cell value; 1 = alive, 0 = dead
+     */
+    @Override
+    public int getCell(int posX, int posY) {
+        Chunk chunk = chunks.get(key(posX >> CHUNK_SHIFT, posY >> CHUNK_SHIFT));
+        if (chunk == null) {
+            return 0;
+        }
+        return (int) ((chunk.cells[posY & (CHUNK_SIZE - 1)] >>> posX) & 1L);
+    }
+
+    /**
+     * Set value of a specific cell; the position can be outside of the visible part.
+     *
+     * @param posX  x position of the cell
+     * @param posY  y position of the cell
+     * @param value of the cell; 1 = alive, 0 = dead
+     */
+    @Override
+    public void setCell(int posX, int posY, int value) {
+        int chunkX = posX >> CHUNK_SHIFT;
+        int chunkY = posY >> CHUNK_SHIFT;
+        Chunk chunk = chunks.get(key(chunkX, chunkY));
+        if (chunk == null) {
+            if (value != 1) {
+                return;
+            }
+            chunk = createChunk(chunkX, chunkY);
+        }
+
+        int row = posY & (CHUNK_SIZE - 1);
+        long word = chunk.cells[row];
+        if (value == 1) {
+            chunk.cells[row] |= 1L << posX;
+        } else {
+            chunk.cells[row] &= ~(1L << posX);
+        }
+
+        if (chunk.cells[row] != word) {
+            int change = Long.bitCount(chunk.cells[row]) - Long.bitCount(word);
+            chunk.livingCells += change;
+            livingCells += change;
+            hash ^= Zobrist.key(posX, posY);
+            chunk.changed = true;
+        }
+    }
+
+
+    @Override
+    public void load(int[][] playField) {
+        setSize(playField.length > 0 ? playField[0].length : 0, playField.length);
+
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                if (playField[y][x] == 1) {
+                    setCell(x, y, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the visible part of the plane into a new int array
+     *
+     * @return int[][] array which contains the visible play field
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] playField = new int[dimensionY][dimensionX];
+
+        for (int y = 0; y < dimensionY; y++) {
+            int chunkY = y >> CHUNK_SHIFT;
+            int row = y & (CHUNK_SIZE - 1);
+
+            for (int chunkX = 0; chunkX * CHUNK_SIZE < dimensionX; chunkX++) {
+                Chunk chunk = chunks.get(key(chunkX, chunkY));
+                if (chunk == null || chunk.cells[row] == 0L) {
+                    continue;
+                }
+
+                long word = chunk.cells[row];
+                int xTo = Math.min((chunkX + 1) * CHUNK_SIZE, dimensionX);
+                for (int x = chunkX * CHUNK_SIZE; x < xTo; x++) {
+                    playField[y][x] = (int) ((word >>> x) & 1L);
+                }
+            }
+        }
+
+        return playField;
+    }
+
+    /**
+     * Pack the visible part of the plane into bits (cell x, y is bit y * dimensionX + x)
+     *
+     * @return packed cells of the visible play field
+     */
+    @Override
+    public long[] toBits() {
+        long[] bits = new long[(int) (((long) dimensionX * dimensionY + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+
+        for (int y = 0; y < dimensionY; y++) {
+            int chunkY = y >> CHUNK_SHIFT;
+            int row = y & (CHUNK_SIZE - 1);
+
+            for (int chunkX = 0; chunkX * CHUNK_SIZE < dimensionX; chunkX++) {
+                Chunk chunk = chunks.get(key(chunkX, chunkY));
+                if (chunk == null || chunk.cells[row] == 0L) {
+                    continue;
+                }
+
+                int x = chunkX * CHUNK_SIZE;
+                GenerationHistory.packWord(bits, (long) y * dimensionX + x, chunk.cells[row],
+                        Math.min(CHUNK_SIZE, dimensionX - x));
+            }
+        }
+
+        return bits;
+    }
+
+    /**
+     * Count the living cells of the whole plane (also outside of the visible part)
+     *
+     * @return amount of living cells
+     */
+    @Override
+    public int countLiving() {
+        return livingCells;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return false;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the amount of stored chunks (64x64 cells)
+     *
+     * @return amount of chunks
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the amount of chunks, which have been computed in the last generation
+     *
+     * @return amount of computed chunks
+     */
+    public int getUpdatedChunks() {
+        return updatedChunks;
+    }
+
+
+    /**
+     * Check if the plane can be stepped with a rule: a radius of 1 and no B0
+     * (on an unbounded plane every dead cell without neighbours would be reanimated)
+     *
+     * @param rule game rules
+     * @return true if the rule is supported
+     */
+    @Override
+    public boolean supports(Rule rule) {
+        return rule.getRadius() <= 1 && rule.nextState(0, 0) == 0;
+    }
+
+    /**
+     * Get the plane to the next generation
+     *
+     * @param rule game rules; dead cells without living neighbours must stay dead (no B0)
+     * @return true if at least one cell has changed
+     */
+    @Override
+    public boolean step(Rule rule) {
+        if (rule.getRadius() > 1) {
+            throw new IllegalArgumentException("Larger than Life rules are only supported by the int array");
+        }
+        if (rule.nextState(0, 0) == 1) {
+            throw new IllegalArgumentException(
+                    "Rules, which reanimate cells without neighbours, can not be used on an unbounded play field");
+        }
+        int reanimateMask = rule.getReanimateMask();
+        int keepLifeMask = rule.getKeepLifeMask();
+
+        chunks.collectValues(stepChunks);
+        if (!rule.equals(lastRule)) {
+            for (Chunk chunk : stepChunks) {
+                chunk.changed = true;
+            }
+            lastRule = rule;
+        }
+
+        // Create the chunks, which living cells at the border of a changed chunk can reach
+        for (Chunk chunk : stepChunks) {
+            if (chunk.changed) {
+                growAround(chunk);
+            }
+        }
+        chunks.collectValues(stepChunks);
+
+        // Select the chunks before computing, because the changed flags are updated afterwards
+        activeChunks.clear();
+        for (Chunk chunk : stepChunks) {
+            if (isActive(chunk)) {
+                activeChunks.add(chunk);
+            }
+        }
+        updatedChunks = activeChunks.size();
+
+        for (Chunk chunk : activeChunks) {
+            computeChunk(chunk, reanimateMask, keepLifeMask);
+        }
+
+        boolean changed = false;
+        for (Chunk chunk : stepChunks) {
+            chunk.changed = false;
+        }
+        for (Chunk chunk : activeChunks) {
+            int nextLiving = 0;
+            for (int row = 0; row < CHUNK_SIZE; row++) {
+                long changedBits = chunk.nextCells[row] ^ chunk.cells[row];
+                if (changedBits != 0L) {
+                    chunk.changed = true;
+                    hash ^= BitGrid.hashDelta(changedBits,
+                            chunk.chunkX * CHUNK_SIZE, chunk.chunkY * CHUNK_SIZE + row);
+                }
+                nextLiving += Long.bitCount(chunk.nextCells[row]);
+            }
+
+            if (chunk.changed) {
+                long[] swap = chunk.cells;
+                chunk.cells = chunk.nextCells;
+                chunk.nextCells = swap;
+                livingCells += nextLiving - chunk.livingCells;
+                chunk.livingCells = nextLiving;
+                changed = true;
+            }
+        }
+
+        // Free the empty chunks; a chunk, which has just died, is kept for one more generation,
+        // so its neighbours are computed again
+        for (Chunk chunk : stepChunks) {
+            if (chunk.livingCells == 0 && !chunk.changed) {
+                chunks.remove(chunk.key);
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Create the missing neighbour chunks, which are touched by living cells at the border of a chunk
+     *
+     * @param chunk chunk, which has changed
+     */
+    private void growAround(Chunk chunk) {
+        long[] cells = chunk.cells;
+        long top = cells[0];
+        long bottom = cells[CHUNK_SIZE - 1];
+        long columns = 0L;
+        for (long row : cells) {
+            columns |= row;
+        }
+
+        ensureChunk(chunk.chunkX, chunk.chunkY - 1, top != 0L);
+        ensureChunk(chunk.chunkX, chunk.chunkY + 1, bottom != 0L);
+        ensureChunk(chunk.chunkX - 1, chunk.chunkY, (columns & 1L) != 0L);
+        ensureChunk(chunk.chunkX + 1, chunk.chunkY, columns < 0L);
+        ensureChunk(chunk.chunkX - 1, chunk.chunkY - 1, (top & 1L) != 0L);
+        ensureChunk(chunk.chunkX + 1, chunk.chunkY - 1, top < 0L);
+        ensureChunk(chunk.chunkX - 1, chunk.chunkY + 1, (bottom & 1L) != 0L);
+        ensureChunk(chunk.chunkX + 1, chunk.chunkY + 1, bottom < 0L);
+    }
+
+    /**
+     * Create a chunk if it is needed and does not exist yet
+     *
+     * @param chunkX x position of the chunk
+     * @param chunkY y position of the chunk
+     * @param needed true if living cells touch the chunk
+     */
+    private void ensureChunk(int chunkX, int chunkY, boolean needed) {
+        if (needed && chunks.get(key(chunkX, chunkY)) == null) {
+            // The new chunk is computed, because the chunk next to it has changed
+            createChunk(chunkX, chunkY).changed = false;
+        }
+    }
+
+    /**
+     * Create an empty chunk and store it in the map
+     *
+     * @param chunkX x position of the chunk
+     * @param chunkY y position of the chunk
+     * @return new chunk
+     */
+    private Chunk createChunk(int chunkX, int chunkY) {
+        Chunk chunk = new Chunk(chunkX, chunkY);
+        chunks.put(chunk.key, chunk);
+        return chunk;
+    }
+
+    /**
+     * Check if a chunk has to be computed
+     * (it has changed in the last generation or touches a chunk, which has changed)
+     *
+     * @param chunk chunk to check
+     * @return true if the chunk has to be computed
+     */
+    private boolean isActive(Chunk chunk) {
+        for (int y = chunk.chunkY - 1; y <= chunk.chunkY + 1; y++) {
+            for (int x = chunk.chunkX - 1; x <= chunk.chunkX + 1; x++) {
+                Chunk neighbour = chunks.get(key(x, y));
+                if (neighbour != null && neighbour.changed) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the next generation of a chunk into its next rows
+     *
+     * @param chunk         chunk to compute
+     * @param reanimateMask bit n is set if n living neighbours reanimate a dead cell
+     * @param keepLifeMask  bit n is set if n living neighbours keep a cell alive
+     */
+    private void computeChunk(Chunk chunk, int reanimateMask, int keepLifeMask) {
+        int chunkX = chunk.chunkX;
+        int chunkY = chunk.chunkY;
+        long[] north = rows(chunkX, chunkY - 1);
+        long[] south = rows(chunkX, chunkY + 1);
+        long[] west = rows(chunkX - 1, chunkY);
+        long[] east = rows(chunkX + 1, chunkY);
+        long[] northWest = rows(chunkX - 1, chunkY - 1);
+        long[] northEast = rows(chunkX + 1, chunkY - 1);
+        long[] southWest = rows(chunkX - 1, chunkY + 1);
+        long[] southEast = rows(chunkX + 1, chunkY + 1);
+        long[] cells = chunk.cells;
+        int last = CHUNK_SIZE - 1;
+
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            long aboveLeft = row > 0 ? west[row - 1] : northWest[last];
+            long above = row > 0 ? cells[row - 1] : north[last];
+            long aboveRight = row > 0 ? east[row - 1] : northEast[last];
+            long belowLeft = row < last ? west[row + 1] : southWest[0];
+            long below = row < last ? cells[row + 1] : south[0];
+            long belowRight = row < last ? east[row + 1] : southEast[0];
+
+            chunk.nextCells[row] = BitGrid.nextWord(
+                    aboveLeft, above, aboveRight,
+                    west[row], cells[row], east[row],
+                    belowLeft, below, belowRight,
+                    reanimateMask, keepLifeMask);
+        }
+    }
+
+    /**
+     * Get the rows of the current generation of a chunk
+     *
+     * @param chunkX x position of the chunk
+     * @param chunkY y position of the chunk
+     * @return rows of the chunk; empty rows if the chunk does not exist
+     */
+    private long[] rows(int chunkX, int chunkY) {
+        Chunk chunk = chunks.get(key(chunkX, chunkY));
+        return chunk == null ? EMPTY_ROWS : chunk.cells;
+    }
+
+    /**
+     * Pack the position of a chunk into one long
+     *
+     * @param chunkX x position of the chunk
+     * @param chunkY y position of the chunk
+     * @return key of the chunk
+     */
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkY << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Chunk of 64x64 cells (bit x % 64 of row y % 64 contains the cell x, y)
+     */
+    private static final class Chunk {
+        /**
+         * Packed position of the chunk
+         */
+        private final long key;
+
+        /**
+         * x position of the chunk (cell x / 64)
+         */
+        private final int chunkX;
+
+        /**
+         * y position of the chunk (cell y / 64)
+         */
+        private final int chunkY;
+
+        /**
+         * Rows of the current generation
+         */
+        private long[] cells = new long[CHUNK_SIZE];
+
+        /**
+         * Rows of the next generation, swapped with cells if the chunk has changed
+         */
+        private long[] nextCells = new long[CHUNK_SIZE];
+
+        /**
+         * Amount of living cells in the chunk
+         */
+        private int livingCells;
+
+        /**
+         * True if the chunk has changed in the last generation (or has been edited)
+         */
+        private boolean changed = true;
+
+
+        /**
+         * Chunk Constructor
+         *
+         * @param chunkX x position of the chunk
+         * @param chunkY y position of the chunk
+         */
+        private Chunk(int chunkX, int chunkY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.key = key(chunkX, chunkY);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package gameoflife;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of one step of the play field (see PlayField.stepForward)
+ * <p>
+ * Without a stack trace the event is cheap enough to be recorded for every generation,
+ * so GC pauses can be matched to the generations, which they have delayed.
+ * It is only created while it is recorded (see TYPE), so the stepping does not allocate otherwise.
+ *
+ * @author Richard Krikler
+ */
+@Name("gameoflife.Step")
+@Label("Step")
+@Category("Game Of Life")
+@Description("Computation of the next generation of the play field")
+@StackTrace(false)
+final class StepEvent extends Event {
+    /**
+     * Type of the event; enabled while a recording of the event is running
+     */
+    static final EventType TYPE = EventType.getEventType(StepEvent.class);
+
+    /**
+     * x dimension of the play field
+     */
+    @Label("Dimension X")
+    int dimensionX;
+
+    /**
+     * y dimension of the play field
+     */
+    @Label("Dimension Y")
+    int dimensionY;
+
+    /**
+     * Generation after the step
+     */
+    @Label("Generation")
+    int generation;
+
+    /**
+     * Amount of living cells after the step
+     */
+    @Label("Population")
+    int population;
+
+    /**
+     * False if the play field has not changed (the generation has not been advanced)
+     */
+    @Label("Changed")
+    boolean changed;
+}
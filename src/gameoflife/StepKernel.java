@@ -0,0 +1,71 @@
+package gameoflife;
+
+/**
+ * Kernel, which computes the next generation of one row of the int array play field
+ *
+ * @author Richard Krikler
+ */
+interface StepKernel {
+
+    /**
+     * Compute the next generation of one row
+     *
+     * @param above      row above or null if it is a dead row
+     * @param row        row of the cells
+     * @param below      row below or null if it is a dead row
+     * @param leftGhost  bits of the column left of the row (above = 4, row = 2, below = 1)
+     * @param rightGhost bits of the column right of the row (above = 4, row = 2, below = 1)
+     * @param nextRow    receives the next generation of the row
+     * @param posY       y position of the row (for the Zobrist keys of the changed cells)
+     * @param rule       game rules
+     * @param stats      the amount of living and changed cells of the row is added to it
+     */
+    void computeRow(int[] above, int[] row, int[] below, int leftGhost, int rightGhost,
+                    int[] nextRow, int posY, Rule rule, StepStats stats);
+
+    /**
+     * Create the best available kernel: the vector kernel if the jdk.incubator.vector module
+     * is available, otherwise the scalar kernel
+     *
+     * @return step kernel
+     */
+    static StepKernel createBest() {
+        StepKernel vectorKernel = createVector();
+        return vectorKernel != null ? vectorKernel : new ScalarKernel();
+    }
+
+    /**
+     * Create the vector kernel.
+     * It is loaded by name, so the play field also works without the jdk.incubator.vector module.
+     *
+     * @return vector kernel or null if the module is not available
+     */
+    static StepKernel createVector() {
+        try {
+            return (StepKernel) Class.forName("gameoflife.VectorKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the 3 bits of one column of a 3x3 neighbourhood
+     *
+     * @param above row above the cell or null if it is a dead row
+     * @param row   row of the cell
+     * @param below row below the cell or null if it is a dead row
+     * @param x     x position of the column
+     * @return bits of the column; above = 4, row = 2, below = 1
+     */
+    static int column(int[] above, int[] row, int[] below, int x) {
+        int column = row[x] << 1;
+        if (above != null) {
+            column |= above[x] << 2;
+        }
+        if (below != null) {
+            column |= below[x];
+        }
+        return column;
+    }
+}
@@ -0,0 +1,44 @@
+package gameoflife;
+
+/**
+ * Values collected while computing a generation (or a band of rows of a generation)
+ *
+ * @author Richard Krikler
+ */
+final class StepStats {
+    /**
+     * Amount of living cells in the computed generation
+     */
+    int livingCells;
+
+    /**
+     * Amount of cells, which have changed their state
+     */
+    int changedCells;
+
+    /**
+     * XOR of the Zobrist keys of the changed cells (changes the hash of the play field)
+     */
+    long hashDelta;
+
+
+    /**
+     * Reset all values to zero
+     */
+    void reset() {
+        livingCells = 0;
+        changedCells = 0;
+        hashDelta = 0L;
+    }
+
+    /**
+     * Add the values of another (band) result
+     *
+     * @param other values of another band of rows
+     */
+    void add(StepStats other) {
+        livingCells += other.livingCells;
+        changedCells += other.changedCells;
+        hashDelta ^= other.hashDelta;
+    }
+}
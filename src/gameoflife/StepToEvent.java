@@ -0,0 +1,56 @@
+package gameoflife;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a jump to a generation (see PlayField.stepTo);
+ * the single steps of the jump are recorded as StepEvents.
+ * It is only created while it is recorded (see TYPE).
+ *
+ * @author Richard Krikler
+ */
+@Name("gameoflife.StepTo")
+@Label("Step To")
+@Category("Game Of Life")
+@Description("Jump of the play field to a generation (forward or back)")
+final class StepToEvent extends Event {
+    /**
+     * Type of the event; enabled while a recording of the event is running
+     */
+    static final EventType TYPE = EventType.getEventType(StepToEvent.class);
+
+    /**
+     * x dimension of the play field
+     */
+    @Label("Dimension X")
+    int dimensionX;
+
+    /**
+     * y dimension of the play field
+     */
+    @Label("Dimension Y")
+    int dimensionY;
+
+    /**
+     * Generation before the jump
+     */
+    @Label("From Generation")
+    int fromGeneration;
+
+    /**
+     * Generation after the jump
+     */
+    @Label("Generation")
+    int generation;
+
+    /**
+     * Amount of living cells after the jump
+     */
+    @Label("Population")
+    int population;
+}
@@ -0,0 +1,132 @@
+package gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * Summed-area table of a play field for Larger than Life rules
+ * <p>
+ * Every entry contains the amount of living cells in the rectangle from the top left corner
+ * to the entry, so the living cells of any square around a cell are counted with 4 lookups,
+ * independent of the radius of the neighbourhood.
+ * The play field is padded by the radius on every side with the ghost cells of the topology.
+ *
+ * @author Richard Krikler
+ */
+final class SummedAreaTable {
+    /**
+     * Amount of living cells of the padded play field; entry (y + 1) * (width + 1) + (x + 1)
+     * contains the cells from (0, 0) to (x, y) of the padded play field
+     */
+    private int[] sums = new int[0];
+
+    /**
+     * Width of the padded play field (dimensionX + 2 * radius)
+     */
+    private int width;
+
+    /**
+     * Radius of the neighbourhood, by which the play field is padded
+     */
+    private int radius;
+
+
+    /**
+     * Build the table for the current generation
+     *
+     * @param current  int[][] array which contains the current generation
+     * @param radius   radius of the neighbourhood
+     * @param topology topology of the play field, which defines the padding cells
+     */
+    void build(int[][] current, int radius, Topology topology) {
+        int dimensionY = current.length;
+        int dimensionX = dimensionY > 0 ? current[0].length : 0;
+        this.radius = radius;
+        width = dimensionX + 2 * radius;
+        int height = dimensionY + 2 * radius;
+        int stride = width + 1;
+
+        int size = stride * (height + 1);
+        if (sums.length < size) {
+            sums = new int[size];
+        }
+        if (dimensionX == 0 || dimensionY == 0) {
+            return;
+        }
+
+        // The first row and column of the table are empty (the buffer may contain an older table)
+        Arrays.fill(sums, 0, stride, 0);
+        for (int y = 0; y < height; y++) {
+            int rowSum = 0;
+            sums[(y + 1) * stride] = 0;
+            int index = (y + 1) * stride + 1;
+            for (int x = 0; x < width; x++, index++) {
+                rowSum += cellAt(current, x - radius, y - radius, dimensionX, dimensionY, topology);
+                sums[index] = sums[index - stride] + rowSum;
+            }
+        }
+    }
+
+    /**
+     * Compute the next generation of a row with the table of the current generation
+     *
+     * @param row     current row
+     * @param nextRow array for the row in the next generation
+     * @param posY    y position of the row
+     * @param rule    game rules
+     * @param stats   receives the amount of living and changed cells and the hash delta of the row
+     */
+    void computeRow(int[] row, int[] nextRow, int posY, Rule rule, StepStats stats) {
+        int stride = width + 1;
+        int side = 2 * radius + 1;
+        // Rows of the table above and at the bottom of the square around the cells
+        int top = posY * stride;
+        int bottom = (posY + side) * stride;
+        int livingCells = 0;
+        int changedCells = 0;
+        long hashDelta = 0L;
+
+        for (int x = 0; x < row.length; x++) {
+            int square = sums[bottom + x + side] - sums[top + x + side] - sums[bottom + x] + sums[top + x];
+            int cell = rule.nextState(row[x], square - row[x]);
+            nextRow[x] = cell;
+            livingCells += cell;
+            if (cell != row[x]) {
+                changedCells++;
+                hashDelta ^= Zobrist.key(x, posY);
+            }
+        }
+
+        stats.livingCells += livingCells;
+        stats.changedCells += changedCells;
+        stats.hashDelta ^= hashDelta;
+    }
+
+
+    /**
+     * Get a cell of the play field or a ghost cell outside of it
+     *
+     * @param current    int[][] array which contains the play field
+     * @param posX       x position; may be outside of the play field
+     * @param posY       y position; may be outside of the play field
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @param topology   topology of the play field
+     * @return state of the cell; 1 = alive, 0 = dead
+     */
+    private static int cellAt(int[][] current, int posX, int posY, int dimensionX, int dimensionY,
+                              Topology topology) {
+        if (posX >= 0 && posX < dimensionX && posY >= 0 && posY < dimensionY) {
+            return current[posY][posX];
+        }
+        if (topology == Topology.BOUNDED) {
+            return 0;
+        }
+
+        int x = Math.floorMod(posX, dimensionX);
+        // Klein bottle: every time the top or bottom border is crossed, the columns are mirrored
+        if (topology == Topology.KLEIN_BOTTLE && (Math.floorDiv(posY, dimensionY) & 1) != 0) {
+            x = dimensionX - 1 - x;
+        }
+        return current[Math.floorMod(posY, dimensionY)][x];
+    }
+}
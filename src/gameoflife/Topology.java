@@ -0,0 +1,45 @@
+package gameoflife;
+
+/**
+ * Topology of the play field, which defines the neighbours of the cells at the border
+ *
+ * @author Richard Krikler
+ */
+public enum Topology {
+    /**
+     * Cells outside of the play field are dead
+     */
+    BOUNDED("Bounded"),
+
+    /**
+     * The left border is connected to the right border and the top border to the bottom border
+     */
+    TORUS("Torus"),
+
+    /**
+     * Like the torus, but the top border is connected mirrored (x -> dimensionX - 1 - x)
+     * to the bottom border
+     */
+    KLEIN_BOTTLE("Klein bottle");
+
+    /**
+     * Name shown in the GUI
+     */
+    private final String displayName;
+
+
+    /**
+     * Topology Constructor
+     *
+     * @param displayName name shown in the GUI
+     */
+    Topology(String displayName) {
+        this.displayName = displayName;
+    }
+
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,120 @@
+package gameoflife;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Step kernel using the Vector API (jdk.incubator.vector):
+ * the neighbour sums and the game rules are computed for a full vector of cells at once.
+ * <p>
+ * The rules are applied as bit masks: the neighbour sum of every lane shifts the mask of
+ * the reanimate rule and the keep life rule, the state of the cell selects one of them.
+ * The cells at the borders of the row (and the rest, which does not fill a vector)
+ * are computed with the rule table.
+ *
+ * @author Richard Krikler
+ */
+final class VectorKernel implements StepKernel {
+    /**
+     * Widest vector species supported by the CPU
+     */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Kernel for rows next to dead rows
+     */
+    private final ScalarKernel scalarKernel = new ScalarKernel();
+
+
+    @Override
+    public void computeRow(int[] above, int[] row, int[] below, int leftGhost, int rightGhost,
+                           int[] nextRow, int posY, Rule rule, StepStats stats) {
+        // Rows next to a dead row only exist at the border of the bounded play field
+        if (above == null || below == null) {
+            scalarKernel.computeRow(above, row, below, leftGhost, rightGhost, nextRow, posY, rule, stats);
+            return;
+        }
+
+        int dimensionX = row.length;
+        int lanes = SPECIES.length();
+        IntVector reanimateMask = IntVector.broadcast(SPECIES, rule.getReanimateMask());
+        IntVector keepLifeMask = IntVector.broadcast(SPECIES, rule.getKeepLifeMask());
+        int livingCells = 0;
+        int changedCells = 0;
+        long hashDelta = 0L;
+
+        // The first and the last cell need the ghost columns
+        int x = 1;
+        for (; x + lanes < dimensionX; x += lanes) {
+            IntVector sum = IntVector.fromArray(SPECIES, above, x - 1)
+                    .add(IntVector.fromArray(SPECIES, above, x))
+                    .add(IntVector.fromArray(SPECIES, above, x + 1))
+                    .add(IntVector.fromArray(SPECIES, row, x - 1))
+                    .add(IntVector.fromArray(SPECIES, row, x + 1))
+                    .add(IntVector.fromArray(SPECIES, below, x - 1))
+                    .add(IntVector.fromArray(SPECIES, below, x))
+                    .add(IntVector.fromArray(SPECIES, below, x + 1));
+            IntVector state = IntVector.fromArray(SPECIES, row, x);
+
+            IntVector reanimate = reanimateMask.lanewise(VectorOperators.LSHR, sum).and(1);
+            IntVector keepLife = keepLifeMask.lanewise(VectorOperators.LSHR, sum).and(1);
+            VectorMask<Integer> alive = state.compare(VectorOperators.NE, 0);
+            IntVector next = reanimate.blend(keepLife, alive);
+
+            next.intoArray(nextRow, x);
+            livingCells += next.reduceLanes(VectorOperators.ADD);
+            // The changed lanes are rare, their keys are added one by one
+            long changedLanes = next.compare(VectorOperators.NE, state).toLong();
+            changedCells += Long.bitCount(changedLanes);
+            while (changedLanes != 0L) {
+                hashDelta ^= Zobrist.key(x + Long.numberOfTrailingZeros(changedLanes), posY);
+                changedLanes &= changedLanes - 1;
+            }
+        }
+
+        stats.livingCells += livingCells;
+        stats.changedCells += changedCells;
+        stats.hashDelta ^= hashDelta;
+
+        // The first cell and the rest after the vectors
+        byte[] neighbourhoodTable = rule.getNeighbourhoodTable();
+        if (dimensionX > 0) {
+            computeCell(above, row, below, leftGhost, rightGhost, 0, nextRow, posY, neighbourhoodTable, stats);
+        }
+        for (; x < dimensionX; x++) {
+            computeCell(above, row, below, leftGhost, rightGhost, x, nextRow, posY, neighbourhoodTable, stats);
+        }
+    }
+
+    /**
+     * Compute the next generation of a single cell with the rule table
+     *
+     * @param above              row above
+     * @param row                row of the cell
+     * @param below              row below
+     * @param leftGhost          bits of the column left of the row
+     * @param rightGhost         bits of the column right of the row
+     * @param x                  x position of the cell
+     * @param nextRow            receives the next state of the cell
+     * @param posY               y position of the row
+     * @param neighbourhoodTable next state of a cell, indexed by its 3x3 neighbourhood
+     * @param stats              the cell is added to it
+     */
+    private static void computeCell(int[] above, int[] row, int[] below, int leftGhost, int rightGhost,
+                                    int x, int[] nextRow, int posY, byte[] neighbourhoodTable,
+                                    StepStats stats) {
+        int left = x > 0 ? StepKernel.column(above, row, below, x - 1) : leftGhost;
+        int right = x + 1 < row.length ? StepKernel.column(above, row, below, x + 1) : rightGhost;
+        int neighbourhood = (left << 6) | (StepKernel.column(above, row, below, x) << 3) | right;
+
+        int cell = neighbourhoodTable[neighbourhood];
+        nextRow[x] = cell;
+        stats.livingCells += cell;
+        if (cell != row[x]) {
+            stats.changedCells++;
+            stats.hashDelta ^= Zobrist.key(x, posY);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package gameoflife;
+
+/**
+ * Zobrist hashing of the play field: the hash is the XOR of a random 64 bit key per living cell,
+ * so it can be updated with one XOR for every cell, which changes its state
+ * <p>
+ * The keys are not stored in a table, they are computed by mixing the position of the cell,
+ * so they also exist for unbounded play fields.
+ *
+ * @author Richard Krikler
+ */
+public final class Zobrist {
+
+    /**
+     * Zobrist Constructor (only static methods)
+     */
+    private Zobrist() {
+    }
+
+
+    /**
+     * Get the key of a cell position
+     *
+     * @param posX x position of the cell
+     * @param posY y position of the cell
+     * @return pseudo random 64 bit key
+     */
+    public static long key(int posX, int posY) {
+        // Finalizer of SplitMix64
+        long key = (((long) posY << 32) | (posX & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * Compute the hash of a whole play field
+     *
+     * @param playField int[][] array which contains the play field
+     * @return XOR of the keys of all living cells
+     */
+    public static long hash(int[][] playField) {
+        long hash = 0L;
+        for (int y = 0; y < playField.length; y++) {
+            for (int x = 0; x < playField[y].length; x++) {
+                if (playField[y][x] == 1) {
+                    hash ^= key(x, y);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Compute a hash of the living cells, which is independent of the position of the pattern
+     * and of its orientation (the 8 rotations and reflections give the same hash)
+     *
+     * @param playField int[][] array which contains the play field
+     * @return smallest hash of the pattern moved to the origin, over all orientations; 0 if empty
+     */
+    public static long canonicalHash(int[][] playField) {
+        // Bounding box of the living cells
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < playField.length; y++) {
+            for (int x = 0; x < playField[y].length; x++) {
+                if (playField[y][x] == 1) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        if (maxX < 0) {
+            return 0L;
+        }
+
+        int width = maxX - minX;
+        int height = maxY - minY;
+        long[] hashes = new long[8];
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (playField[y][x] != 1) {
+                    continue;
+                }
+                int relX = x - minX;
+                int relY = y - minY;
+                // Orientation bits: 1 = mirror x, 2 = mirror y, 4 = swap x and y
+                for (int orientation = 0; orientation < 8; orientation++) {
+                    int posX = (orientation & 1) != 0 ? width - relX : relX;
+                    int posY = (orientation & 2) != 0 ? height - relY : relY;
+                    hashes[orientation] ^= (orientation & 4) != 0 ? key(posY, posX) : key(posX, posY);
+                }
+            }
+        }
+
+        long canonicalHash = hashes[0];
+        for (long hash : hashes) {
+            canonicalHash = Math.min(canonicalHash, hash);
+        }
+        return canonicalHash;
+    }
+}
@@ -0,0 +1,212 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.PlayField;
+import gameoflife.PresetManager;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the BitGrid Class
+ *
+ * @author Richard Krikler
+ */
+class BitGridTest {
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 15; Y: 16
+     * game speed of 1 second per generation
+     * standard rules for
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     * BitGrid as grid engine
+     */
+    private final PlayField playField = new PlayField(15, 16, 1, new int[]{3}, new int[]{2, 3});
+
+    /**
+     * Store the preset manager (logic for the use of presets) inside the PresetManager Object
+     * <p>
+     * PresetManager with:
+     * stage value of null
+     * standard preset path
+     */
+    private final PresetManager presetManager =
+            new PresetManager(null, "resources/PlayFieldPresets");
+
+
+    @Test
+    void getAndSetCell() {
+        playField.setEngine(new BitGrid(15, 16));
+        playField.setCell(2, 0, 1);
+        playField.setCell(14, 8, 1);
+        playField.setCell(14, 8, 0);
+        playField.setCell(0, 15, 1);
+
+        assertEquals(1, playField.getCell(2, 0));
+        assertEquals(0, playField.getCell(14, 8));
+        assertEquals(1, playField.getCell(0, 15));
+        assertEquals(1, playField.getPlayField()[15][0]);
+        assertEquals(2, playField.getLivingCells());
+
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> playField.setCell(15, 8, 1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> playField.setCell(8, 16, 1));
+    }
+
+    @Test
+    void setSize() {
+        playField.setEngine(new BitGrid(15, 16));
+        playField.setSize(130, 4);
+        assertEquals(130, playField.getDimensionX());
+        assertEquals(4, playField.getDimensionY());
+        assertEquals(130, playField.getPlayField()[0].length);
+    }
+
+    @Test
+    void stepForward() {
+        int[][] startingField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field0_0.csv"));
+        int[][] nextField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field0_1_3,2-3.csv"));
+        playField.setEngine(new BitGrid(0, 0));
+        playField.setPlayField(startingField);
+        playField.stepForward();
+        assertTrue(Arrays.deepEquals(nextField, playField.getPlayField()));
+
+
+        nextField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field0_1_2-3-7,2-3-6.csv"));
+        playField.setPlayField(startingField);
+        playField.setReanimateRule(2, 3, 7);
+        playField.setKeepLifeRule(2, 3, 6);
+        playField.stepForward();
+        assertTrue(Arrays.deepEquals(nextField, playField.getPlayField()));
+    }
+
+    @Test
+    void stepTo() {
+        int[][] startingField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_0.csv"));
+        int[][] resultField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_30_2-6,4-5.csv"));
+        playField.setEngine(new BitGrid(0, 0));
+        playField.setPlayField(startingField);
+        playField.setReanimateRule(2, 6);
+        playField.setKeepLifeRule(4, 5);
+        playField.stepTo(30);
+        assertTrue(Arrays.deepEquals(resultField, playField.getPlayField()));
+
+        // Going back uses the stored generations
+        playField.stepTo(0);
+        assertTrue(Arrays.deepEquals(startingField, playField.getPlayField()));
+    }
+
+    @Test
+    void sameResultAsIntArray() {
+        // Widths around the word borders of 64 cells
+        int[] dimensionsX = {1, 63, 64, 65, 130};
+
+        for (int dimensionX : dimensionsX) {
+            int[][] field = randomField(42 + dimensionX, dimensionX, 37);
+            PlayField arrayField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+            PlayField bitField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+            arrayField.setPlayField(field);
+            bitField.setEngine(new BitGrid(0, 0));
+            bitField.setPlayField(field);
+
+            for (int generation = 0; generation < 20; generation++) {
+                assertEquals(arrayField.stepForward(), bitField.stepForward());
+                assertTrue(Arrays.deepEquals(arrayField.getPlayField(), bitField.getPlayField()));
+            }
+
+            // The generations are stored packed into bits for stepping back
+            bitField.stepTo(0);
+            assertTrue(Arrays.deepEquals(field, bitField.getPlayField()));
+        }
+    }
+
+    @Test
+    void activeTiles() {
+        BitGrid bitGrid = new BitGrid(0, 0);
+        playField.setEngine(bitGrid);
+        playField.setSize(640, 640);
+
+        // Blinker at the border of four tiles
+        playField.setCell(63, 127, 1);
+        playField.setCell(64, 127, 1);
+        playField.setCell(65, 127, 1);
+        assertEquals(100, bitGrid.getTileCount());
+
+        playField.stepForward();
+        assertEquals(1, playField.getCell(64, 126));
+        assertEquals(1, playField.getCell(64, 128));
+        playField.stepForward();
+        assertTrue(bitGrid.getUpdatedTiles() <= 12);
+        assertEquals(3, bitGrid.countLiving());
+        assertEquals(1, playField.getCell(63, 127));
+
+        // Still life: nothing changes anymore
+        playField.setSize(640, 640);
+        playField.setCell(300, 300, 1);
+        playField.setCell(301, 300, 1);
+        playField.setCell(300, 301, 1);
+        playField.setCell(301, 301, 1);
+        assertFalse(playField.stepForward());
+        assertFalse(playField.stepForward());
+        assertEquals(0, bitGrid.getUpdatedTiles());
+        assertEquals(4, bitGrid.countLiving());
+
+        // An edited cell activates its tile again
+        playField.setCell(302, 302, 1);
+        assertTrue(playField.stepForward());
+        assertTrue(bitGrid.getUpdatedTiles() > 0);
+    }
+
+    @Test
+    void activeTilesSameResultAsIntArray() {
+        Random random = new Random(11);
+        int[][] field = new int[200][200];
+        // Some random areas, the rest stays empty
+        for (int y = 20; y < 60; y++) {
+            for (int x = 100; x < 170; x++) {
+                field[y][x] = random.nextInt(2);
+            }
+        }
+        for (int y = 130; y < 190; y++) {
+            for (int x = 5; x < 50; x++) {
+                field[y][x] = random.nextInt(2);
+            }
+        }
+
+        PlayField arrayField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        arrayField.setPlayField(field);
+        playField.setEngine(new BitGrid(0, 0));
+        playField.setPlayField(field);
+
+        for (int generation = 0; generation < 150; generation++) {
+            assertEquals(arrayField.stepForward(), playField.stepForward());
+            assertTrue(Arrays.deepEquals(arrayField.getPlayField(), playField.getPlayField()));
+        }
+
+        // Changing the rules computes every tile again
+        arrayField.setRule("B36/S23");
+        playField.setRule("B36/S23");
+        for (int generation = 0; generation < 20; generation++) {
+            assertEquals(arrayField.stepForward(), playField.stepForward());
+            assertTrue(Arrays.deepEquals(arrayField.getPlayField(), playField.getPlayField()));
+        }
+        assertEquals(Arrays.stream(arrayField.getPlayField()).flatMapToInt(Arrays::stream).sum(),
+                playField.getEngine().countLiving());
+    }
+}
@@ -0,0 +1,215 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.CycleDetector;
+import gameoflife.PlayField;
+import gameoflife.SparseGrid;
+import gameoflife.Topology;
+import gameoflife.Zobrist;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CycleDetector Class (and the Zobrist hash of the PlayField)
+ *
+ * @author Richard Krikler
+ */
+class CycleDetectorTest {
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 12; Y: 12
+     * game speed of 1 second per generation
+     * standard rules for
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     */
+    private final PlayField playField = new PlayField(12, 12, 1, new int[]{3}, new int[]{2, 3});
+
+
+    @Test
+    void record() {
+        CycleDetector cycleDetector = new CycleDetector(3);
+        assertFalse(cycleDetector.record(0, 10L));
+        assertFalse(cycleDetector.record(1, 11L));
+        assertFalse(cycleDetector.record(2, 12L));
+        assertFalse(cycleDetector.isCycleDetected());
+        assertEquals(2, cycleDetector.getLastGeneration());
+
+        assertTrue(cycleDetector.record(3, 11L));
+        assertEquals(1, cycleDetector.getCycleStart());
+        assertEquals(2, cycleDetector.getPeriod());
+
+        // Only the last 3 generations are kept
+        cycleDetector.reset();
+        assertFalse(cycleDetector.isCycleDetected());
+        for (int generation = 0; generation < 4; generation++) {
+            assertFalse(cycleDetector.record(generation, generation));
+        }
+        assertFalse(cycleDetector.record(4, 0L));
+        assertTrue(cycleDetector.record(5, 2L));
+        assertEquals(3, cycleDetector.getPeriod());
+
+        assertThrows(IllegalArgumentException.class, () -> new CycleDetector(0));
+    }
+
+    @Test
+    void sameResultAsMap() {
+        // Hashes of a small range repeat often, inside and outside of the window
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            int window = 1 + random.nextInt(40);
+            CycleDetector cycleDetector = new CycleDetector(window);
+            Map<Long, Integer> recent = new HashMap<>();
+            long[] order = new long[window];
+
+            for (int generation = 0; ; generation++) {
+                long hash = random.nextInt(200);
+                Integer before = recent.get(hash);
+                assertEquals(before != null, cycleDetector.record(generation, hash));
+                if (before != null) {
+                    assertEquals((int) before, cycleDetector.getCycleStart());
+                    assertEquals(generation - before, cycleDetector.getPeriod());
+                    break;
+                }
+                if (generation >= window) {
+                    recent.remove(order[generation % window]);
+                }
+                order[generation % window] = hash;
+                recent.put(hash, generation);
+            }
+        }
+    }
+
+    @Test
+    void recordWithoutAllocation() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CycleDetector cycleDetector = new CycleDetector();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int generation = 0; generation < 100_000; generation++) {
+            assertFalse(cycleDetector.record(generation, Zobrist.key(generation, 7)));
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        // A boxed generation per record would be at least 1.6 MB
+        assertTrue(allocated < 100_000, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void detectBlinker() {
+        // Blinker and block: the play field repeats itself every 2 generations
+        playField.setCell(1, 2, 1);
+        playField.setCell(2, 2, 1);
+        playField.setCell(3, 2, 1);
+        playField.setCell(8, 8, 1);
+        playField.setCell(9, 8, 1);
+        playField.setCell(8, 9, 1);
+        playField.setCell(9, 9, 1);
+
+        assertTrue(playField.stepForward());
+        assertFalse(playField.isCycleDetected());
+        assertTrue(playField.stepForward());
+        assertTrue(playField.isCycleDetected());
+        assertEquals(2, playField.getCyclePeriod());
+        assertEquals(0, playField.getCycleStart());
+        assertTrue(playField.isNewCycleDetected());
+
+        // The acknowledged cycle does not stop the game again
+        playField.acknowledgeCycle();
+        assertTrue(playField.stepForward());
+        assertTrue(playField.isCycleDetected());
+        assertFalse(playField.isNewCycleDetected());
+
+        // An edited cell starts the detection again
+        playField.setCell(5, 5, 1);
+        assertFalse(playField.isCycleDetected());
+        assertEquals(-1, playField.getCycleStart());
+        playField.acknowledgeCycle();
+        assertFalse(playField.isNewCycleDetected());
+    }
+
+    @Test
+    void detectStillLife() {
+        playField.setCell(8, 8, 1);
+        playField.setCell(9, 8, 1);
+        playField.setCell(8, 9, 1);
+        playField.setCell(9, 9, 1);
+
+        assertFalse(playField.stepForward());
+        assertTrue(playField.isCycleDetected());
+        assertEquals(1, playField.getCyclePeriod());
+    }
+
+    @Test
+    void detectGliderOnTorus() {
+        playField.setTopology(Topology.TORUS);
+        playField.setCell(1, 0, 1);
+        playField.setCell(2, 1, 1);
+        playField.setCell(0, 2, 1);
+        playField.setCell(1, 2, 1);
+        playField.setCell(2, 2, 1);
+
+        // The glider is back at its starting position after 4 * 12 generations
+        for (int generation = 0; generation < 47; generation++) {
+            playField.stepForward();
+            assertFalse(playField.isCycleDetected());
+        }
+        playField.stepForward();
+        assertTrue(playField.isCycleDetected());
+        assertEquals(48, playField.getCyclePeriod());
+    }
+
+    @Test
+    void hashOfEngines() {
+        int[][] field = randomField(21, 90, 70);
+
+        PlayField[] playFields = new PlayField[3];
+        for (int i = 0; i < playFields.length; i++) {
+            playFields[i] = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        }
+        playFields[1].setVectorized(false);
+        playFields[2].setEngine(new BitGrid(0, 0));
+
+        for (PlayField field0 : playFields) {
+            field0.setPlayField(field);
+        }
+        for (int generation = 0; generation < 20; generation++) {
+            for (PlayField field0 : playFields) {
+                field0.stepForward();
+                assertEquals(Zobrist.hash(field0.getPlayField()), field0.getHash());
+            }
+        }
+        for (PlayField field0 : playFields) {
+            assertEquals(playFields[0].getHash(), field0.getHash());
+        }
+
+        // The unbounded play field also hashes the cells outside of the visible part
+        SparseGrid sparseGrid = new SparseGrid(10, 10);
+        playField.setEngine(sparseGrid);
+        playField.setCell(-1, 5, 1);
+        playField.setCell(0, 5, 1);
+        playField.setCell(1, 5, 1);
+        long hash = playField.getHash();
+        assertEquals(Zobrist.key(-1, 5) ^ Zobrist.key(0, 5) ^ Zobrist.key(1, 5), hash);
+        playField.stepForward();
+        assertEquals(Zobrist.key(0, 4) ^ Zobrist.key(0, 5) ^ Zobrist.key(0, 6), playField.getHash());
+        playField.stepForward();
+        assertEquals(hash, playField.getHash());
+        assertTrue(playField.isCycleDetected());
+    }
+}
@@ -0,0 +1,155 @@
+package gametests;
+
+import gameoflife.GenerationHistory;
+import gameoflife.PlayField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the GenerationHistory Class
+ *
+ * @author Richard Krikler
+ */
+class GenerationHistoryTest {
+
+    /**
+     * Store the history of the generations inside the GenerationHistory Object
+     */
+    private final GenerationHistory history = new GenerationHistory();
+
+
+    /**
+     * Create the generations of a random play field
+     *
+     * @param amount     amount of generations
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @return generations of the play field
+     */
+    private static List<int[][]> randomGenerations(int amount, int dimensionX, int dimensionY) {
+        Random random = new Random(9);
+        PlayField playField = new PlayField(dimensionX, dimensionY, 1, new int[]{3}, new int[]{2, 3});
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                playField.setCell(x, y, random.nextInt(2));
+            }
+        }
+
+        List<int[][]> generations = new ArrayList<>();
+        for (int generation = 0; generation < amount; generation++) {
+            generations.add(playField.getPlayField());
+            playField.stepForward();
+        }
+        return generations;
+    }
+
+
+    @Test
+    void putAndGet() {
+        List<int[][]> generations = randomGenerations(100, 37, 29);
+        history.setKeyframeInterval(16);
+        for (int generation = 0; generation < generations.size(); generation++) {
+            history.put(generation, generations.get(generation));
+        }
+
+        assertEquals(100, history.size());
+        // At least every 16th generation is a keyframe; deltas larger than a keyframe are keyframes too
+        assertTrue(history.getKeyframeCount() >= 7);
+        assertTrue(history.getKeyframeCount() < 100);
+        for (int generation = 0; generation < generations.size(); generation++) {
+            assertTrue(Arrays.deepEquals(generations.get(generation), history.get(generation)));
+        }
+        assertNull(history.get(100));
+        assertFalse(history.contains(-1));
+
+        // The deltas need less memory than full keyframes
+        GenerationHistory keyframesOnly = new GenerationHistory();
+        keyframesOnly.setKeyframeInterval(1);
+        for (int generation = 0; generation < generations.size(); generation++) {
+            keyframesOnly.put(generation, generations.get(generation));
+        }
+        assertEquals(100, keyframesOnly.getKeyframeCount());
+        assertTrue(history.getUsedBytes() < keyframesOnly.getUsedBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> history.setKeyframeInterval(0));
+    }
+
+    @Test
+    void removeFrom() {
+        List<int[][]> generations = randomGenerations(50, 20, 20);
+        history.setKeyframeInterval(8);
+        for (int generation = 0; generation < generations.size(); generation++) {
+            history.put(generation, generations.get(generation));
+        }
+
+        history.removeFrom(30);
+        assertEquals(30, history.size());
+        assertFalse(history.contains(30));
+
+        // The following deltas are based on the newest remaining generation
+        for (int generation = 30; generation < generations.size(); generation++) {
+            history.put(generation, generations.get(generation));
+        }
+        for (int generation = 0; generation < generations.size(); generation++) {
+            assertTrue(Arrays.deepEquals(generations.get(generation), history.get(generation)));
+        }
+
+        // Storing an older generation replaces the newer ones
+        history.put(10, generations.get(10));
+        assertEquals(11, history.size());
+
+        // Another size is stored as a keyframe
+        int[][] otherSize = new int[3][5];
+        otherSize[1][2] = 1;
+        history.put(11, otherSize);
+        assertTrue(Arrays.deepEquals(otherSize, history.get(11)));
+
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(0, history.getUsedBytes());
+    }
+
+    @Test
+    void memoryBudget() {
+        List<int[][]> generations = randomGenerations(200, 64, 64);
+        history.setKeyframeInterval(10);
+        history.setMemoryBudget(4096);
+        for (int generation = 0; generation < generations.size(); generation++) {
+            history.put(generation, generations.get(generation));
+            assertTrue(history.contains(generation));
+        }
+
+        // The oldest generations are dropped, the newest are still restorable
+        assertFalse(history.contains(0));
+        assertTrue(history.getUsedBytes() <= 4096 || history.getKeyframeCount() == 1);
+        for (int generation = 199; history.contains(generation); generation--) {
+            assertTrue(Arrays.deepEquals(generations.get(generation), history.get(generation)));
+        }
+    }
+
+    @Test
+    void stepBackWithPlayField() {
+        List<int[][]> generations = randomGenerations(150, 30, 30);
+        PlayField playField = new PlayField(30, 30, 1, new int[]{3}, new int[]{2, 3});
+        playField.setPlayField(generations.get(0));
+        playField.stepTo(149);
+
+        // Every generation is reconstructed from its keyframe and the deltas after it
+        for (int generation = 148; generation >= 0; generation -= 7) {
+            assertTrue(playField.stepTo(generation));
+            assertTrue(Arrays.deepEquals(generations.get(generation), playField.getPlayField()));
+        }
+        assertTrue(playField.stepTo(100));
+        assertTrue(Arrays.deepEquals(generations.get(100), playField.getPlayField()));
+    }
+}
@@ -0,0 +1,165 @@
+package gametests;
+
+import gameoflife.HashLife;
+import gameoflife.PlayField;
+import gameoflife.PresetManager;
+import gameoflife.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the HashLife Class
+ *
+ * @author Richard Krikler
+ */
+class HashLifeTest {
+
+    /**
+     * Store the preset manager (logic for the use of presets) inside the PresetManager Object
+     * <p>
+     * PresetManager with:
+     * stage value of null
+     * standard preset path
+     */
+    private final PresetManager presetManager =
+            new PresetManager(null, "resources/PlayFieldPresets");
+
+
+    /**
+     * Place a preset in the middle of a larger play field
+     *
+     * @param preset     int[][] array which contains the preset
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @return int[][] array which contains the play field
+     */
+    private static int[][] placeInMiddle(int[][] preset, int dimensionX, int dimensionY) {
+        int[][] field = new int[dimensionY][dimensionX];
+        int offsetX = (dimensionX - preset[0].length) / 2;
+        int offsetY = (dimensionY - preset.length) / 2;
+        for (int y = 0; y < preset.length; y++) {
+            System.arraycopy(preset[y], 0, field[y + offsetY], offsetX, preset[y].length);
+        }
+        return field;
+    }
+
+
+    @Test
+    void sameResultAsStepping() {
+        int[][] soup = randomField(3, 24, 24);
+        int[][] startingField = placeInMiddle(soup, 160, 140);
+
+        PlayField steppedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        steppedField.setHashLifeThreshold(Integer.MAX_VALUE);
+        steppedField.setPlayField(startingField);
+        steppedField.stepTo(600);
+
+        PlayField jumpedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        jumpedField.setHashLifeThreshold(1);
+        jumpedField.setPlayField(startingField);
+        jumpedField.stepTo(600);
+
+        assertTrue(Arrays.deepEquals(steppedField.getPlayField(), jumpedField.getPlayField()));
+    }
+
+    @Test
+    void sameResultAsSteppingRandomSoups() {
+        Random random = new Random(5);
+        for (int soupIndex = 0; soupIndex < 200; soupIndex++) {
+            int[][] soup = new int[6][6];
+            for (int[] row : soup) {
+                for (int x = 0; x < row.length; x++) {
+                    row[x] = random.nextInt(2);
+                }
+            }
+            int[][] field = placeInMiddle(soup, 64, 64);
+
+            PlayField steppedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+            steppedField.setHashLifeThreshold(Integer.MAX_VALUE);
+            steppedField.setPlayField(placeInMiddle(soup, 64, 64));
+
+            PlayField jumpedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+            jumpedField.setHashLifeThreshold(1);
+            jumpedField.setPlayField(placeInMiddle(soup, 64, 64));
+
+            // The jump stops when the cells come close to the border, the rest is stepped
+            HashLife hashLife = new HashLife(new Rule(new int[]{3}, new int[]{2, 3}), HashLife.DEFAULT_MAX_NODES);
+            long advanced = hashLife.advance(field, 40);
+            for (long generation = 0; generation < advanced; generation++) {
+                steppedField.stepForward();
+            }
+            assertTrue(Arrays.deepEquals(steppedField.getPlayField(), field), "soup " + soupIndex);
+
+            steppedField.stepTo(40);
+            jumpedField.stepTo(40);
+            assertTrue(Arrays.deepEquals(steppedField.getPlayField(), jumpedField.getPlayField()),
+                    "soup " + soupIndex);
+        }
+    }
+
+    @Test
+    void advanceGlider() {
+        int[][] glider = presetManager.loadPreset("Glider");
+        int[][] field = placeInMiddle(glider, 200, 200);
+        int[][] expected = placeInMiddle(glider, 200, 200);
+
+        PlayField steppedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        steppedField.setHashLifeThreshold(Integer.MAX_VALUE);
+        steppedField.setPlayField(expected);
+        steppedField.stepTo(64);
+
+        HashLife hashLife = new HashLife(new Rule(new int[]{3}, new int[]{2, 3}), HashLife.DEFAULT_MAX_NODES);
+        assertEquals(64, hashLife.advance(field, 64));
+        assertTrue(Arrays.deepEquals(steppedField.getPlayField(), field));
+    }
+
+    @Test
+    void jumpFarAhead() {
+        int[][] blinker = presetManager.loadPreset(Path.of("resources/PlayFieldPresets/Blinker1.csv"));
+        int[][] startingField = placeInMiddle(blinker, 1024, 1024);
+
+        PlayField playField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        playField.setPlayField(startingField);
+        assertTrue(playField.stepTo(1_000_000));
+
+        // The blinker has a period of 2
+        assertEquals(1_000_000, playField.getGeneration());
+        assertTrue(Arrays.deepEquals(startingField, playField.getPlayField()));
+
+        // The skipped generations are not stored
+        assertFalse(playField.stepTo(999_999));
+        assertTrue(playField.stepTo(0));
+        assertTrue(Arrays.deepEquals(startingField, playField.getPlayField()));
+    }
+
+    @Test
+    void memoCache() {
+        Rule rule = new Rule(new int[]{3}, new int[]{2, 3});
+        int[][] boundedField = placeInMiddle(presetManager.loadPreset("r-Pentomino"), 256, 256);
+        int[][] unboundedField = placeInMiddle(presetManager.loadPreset("r-Pentomino"), 256, 256);
+
+        HashLife boundedCache = new HashLife(rule, 1000);
+        HashLife unboundedCache = new HashLife(rule, HashLife.DEFAULT_MAX_NODES);
+        assertEquals(100, boundedCache.advance(boundedField, 100));
+        assertEquals(100, unboundedCache.advance(unboundedField, 100));
+
+        // The cache is dropped when it contains too many nodes, the result stays the same
+        assertTrue(boundedCache.getNodeCount() < unboundedCache.getNodeCount());
+        assertTrue(Arrays.deepEquals(unboundedField, boundedField));
+
+        unboundedCache.clear();
+        assertEquals(0, unboundedCache.getNodeCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new HashLife(new Rule(new int[]{0, 3}, new int[]{2, 3}), 1000));
+    }
+}
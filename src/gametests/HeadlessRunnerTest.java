@@ -0,0 +1,101 @@
+package gametests;
+
+import gameoflife.HeadlessRunner;
+import gameoflife.PresetCsv;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the HeadlessRunner Class
+ *
+ * @author Richard Krikler
+ */
+class HeadlessRunnerTest {
+
+    /**
+     * Temporary directory for the result files
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Receives the report of the runner
+     */
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    /**
+     * Receives the error messages of the runner
+     */
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+
+    /**
+     * Run the runner with the output streams of the test
+     *
+     * @param args command line arguments
+     * @return exit code
+     */
+    private int run(String... args) {
+        return HeadlessRunner.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+
+    @Test
+    void runPreset() throws IOException {
+        Path finalField = tempDir.resolve("final.csv");
+        Path analysis = tempDir.resolve("analysis.csv");
+        assertEquals(0, run("--preset", "resources/JUnitTests/PlayFieldTest/Field1_0.csv",
+                "--rule", "B26/S45", "--generations", "30", "--threads", "2",
+                "--out", finalField.toString(), "--analysis", analysis.toString()));
+
+        int[][] expected = PresetCsv.parse(Files.readAllLines(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_30_2-6,4-5.csv")));
+        assertTrue(Arrays.deepEquals(expected, PresetCsv.parse(Files.readAllLines(finalField))));
+
+        // Header and the generations 0 to 30
+        List<String> analysisLines = Files.readAllLines(analysis);
+        assertEquals(32, analysisLines.size());
+        assertEquals("generation,livingCells,change,percentChange", analysisLines.get(0));
+        int livingCells = Arrays.stream(expected).flatMapToInt(Arrays::stream).sum();
+        assertTrue(analysisLines.get(31).startsWith("30," + livingCells + ","));
+
+        String report = out.toString();
+        assertTrue(report.contains("Generations: 30"));
+        assertTrue(report.contains("Generations/second: "));
+        assertTrue(report.contains("Cell updates/second: "));
+    }
+
+    @Test
+    void runUntilStable() {
+        // Blinker on a random free play field: stable with the period 2
+        assertEquals(0, run("--preset", "resources/PlayFieldPresets/Blinker1.csv",
+                "--generations", "100", "--until-stable"));
+        assertTrue(out.toString().contains("period 2"), out.toString());
+
+        out.reset();
+        assertEquals(0, run("--size", "64x48", "--seed", "5", "--density", "0.3",
+                "--rule", "R2,B7-9,S6-11", "--topology", "torus", "--generations", "20"));
+        assertTrue(out.toString().contains("Generations: "));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertEquals(2, run("--size", "10"));
+        assertEquals(2, run("--generations"));
+        assertEquals(2, run("--preset", "resources/PlayFieldPresets/Glider.csv", "--rule", "X"));
+        assertEquals(2, run("--unknown"));
+        assertTrue(err.toString().contains("Usage: "));
+        assertEquals(1, run("--preset", tempDir.resolve("missing.csv").toString()));
+    }
+}
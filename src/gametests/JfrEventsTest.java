@@ -0,0 +1,122 @@
+package gametests;
+
+import gameoflife.Analysis;
+import gameoflife.PlayField;
+import gameoflife.PresetManager;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the Flight Recorder events of the play field, the analysis and the preset manager
+ *
+ * @author Richard Krikler
+ */
+class JfrEventsTest {
+
+    /**
+     * Temporary directory for the recording and the saved preset
+     */
+    @TempDir
+    Path tempDir;
+
+
+    /**
+     * Get the recorded events with a name
+     *
+     * @param events all recorded events
+     * @param name   name of the event type
+     * @return events of the type
+     */
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+
+    @Test
+    void recordEvents() throws IOException {
+        Path recordingFile = tempDir.resolve("game.jfr");
+        Path presetFile = tempDir.resolve("preset.csv");
+
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"gameoflife.Step", "gameoflife.StepTo",
+                    "gameoflife.AnalysisCellCount", "gameoflife.PresetIO"}) {
+                recording.enable(name);
+            }
+            recording.start();
+
+            PresetManager presetManager = new PresetManager(null, "resources/PlayFieldPresets");
+            PlayField playField = new PlayField(20, 20);
+            playField.setRule("B3/S23");
+            playField.setPlayField(presetManager.loadPreset(Path.of("resources/PlayFieldPresets/Glider.csv")));
+            playField.stepForward();
+            // Recording the population does not add it to the analysis
+            assertFalse(playField.getAnalysis().getCellsPerGen().containsKey(1));
+            playField.stepTo(5);
+            presetManager.savePreset(presetFile, playField);
+
+            Analysis analysis = new Analysis();
+            analysis.addCellCount(0, 7);
+            analysis.addCellCount(1, 9);
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+        List<RecordedEvent> steps = ofType(events, "gameoflife.Step");
+        assertEquals(5, steps.size());
+        RecordedEvent lastStep = steps.get(steps.size() - 1);
+        assertEquals(5, lastStep.getInt("generation"));
+        assertEquals(5, lastStep.getInt("population"));
+        assertTrue(lastStep.getBoolean("changed"));
+        assertTrue(lastStep.getStackTrace() == null);
+
+        List<RecordedEvent> stepTos = ofType(events, "gameoflife.StepTo");
+        assertEquals(1, stepTos.size());
+        assertEquals(1, stepTos.get(0).getInt("fromGeneration"));
+        assertEquals(5, stepTos.get(0).getInt("generation"));
+
+        // Counts of the jump of stepTo and of the analysis above
+        List<RecordedEvent> cellCounts = ofType(events, "gameoflife.AnalysisCellCount");
+        assertFalse(cellCounts.isEmpty());
+        assertTrue(cellCounts.stream().anyMatch(e -> e.getInt("generation") == 1
+                && e.getInt("population") == 9 && e.getInt("storedGenerations") == 2));
+
+        List<RecordedEvent> presetIo = ofType(events, "gameoflife.PresetIO");
+        assertEquals(2, presetIo.size());
+        RecordedEvent load = presetIo.get(0);
+        assertEquals("load", load.getString("operation"));
+        assertEquals(Files.size(Path.of("resources/PlayFieldPresets/Glider.csv")), load.getLong("bytes"));
+        RecordedEvent save = presetIo.get(1);
+        assertEquals("save", save.getString("operation"));
+        assertEquals(Files.size(presetFile), save.getLong("bytes"));
+        assertEquals("20x20", dimensions(save));
+        assertTrue(save.getBoolean("success"));
+    }
+
+    /**
+     * Format the dimensions of an event
+     *
+     * @param event event with the dimensions of the play field
+     * @return e.g. "20x20"
+     */
+    private static String dimensions(RecordedEvent event) {
+        return event.getInt("dimensionX") + "x" + event.getInt("dimensionY");
+    }
+}
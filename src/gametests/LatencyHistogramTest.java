@@ -0,0 +1,109 @@
+package gametests;
+
+import gameoflife.LatencyHistogram;
+import gameoflife.PerformanceMetrics;
+import gameoflife.PlayField;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the LatencyHistogram Class (and the PerformanceMetrics of the PlayField)
+ *
+ * @author Richard Krikler
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Store the histogram inside the LatencyHistogram Object
+     */
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+
+    @Test
+    void percentiles() {
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean());
+
+        // 1 to 10000 microseconds
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 1e-6);
+
+        // The relative error of a bucket is less than 1/32
+        double[][] expected = {{0, 1000}, {50, 5_000_000}, {99, 9_900_000}, {99.9, 9_990_000}, {100, 10_000_000}};
+        for (double[] percentile : expected) {
+            long value = histogram.getValueAtPercentile(percentile[0]);
+            assertTrue(value >= percentile[1] && value <= percentile[1] * 33 / 32,
+                    "p" + percentile[0] + ": " + value);
+        }
+
+        // Small values are stored exactly
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        histogram.record(7);
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(7, histogram.getValueAtPercentile(100));
+
+        // Largest possible duration
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    @Test
+    void concurrentRecording() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 1000);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // No recorded value is lost
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(999, histogram.getMax());
+        assertEquals(499.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void playFieldMetrics() throws InterruptedException {
+        PlayField playField = new PlayField(64, 32);
+        playField.setRule("B3/S23");
+        playField.placeRandomly(1, 0.4);
+        PerformanceMetrics metrics = playField.getMetrics();
+
+        int advanced = playField.advance(50);
+        assertEquals(advanced, metrics.getStepTimes().getCount());
+        assertTrue(metrics.getStepTimes().getValueAtPercentile(50) > 0);
+
+        // The throughput is published after a full second
+        Thread.sleep(1100);
+        playField.advance(1);
+        assertTrue(metrics.getGenerationsPerSecond() > 0);
+        assertEquals(metrics.getGenerationsPerSecond() * 64 * 32, metrics.getCellsPerSecond(), 1e-6);
+        assertTrue(metrics.toString().contains("gen/s"));
+
+        metrics.recordRender(2_000_000);
+        assertEquals(1, metrics.getRenderTimes().getCount());
+        metrics.reset();
+        assertEquals(0, metrics.getStepTimes().getCount());
+        assertEquals(0, metrics.getRenderTimes().getCount());
+        assertEquals(0, metrics.getGenerationsPerSecond());
+    }
+}
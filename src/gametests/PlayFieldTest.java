@@ -2,12 +2,17 @@ package gametests;
 
 import gameoflife.PlayField;
 import gameoflife.PresetManager;
+import gameoflife.Topology;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
 import java.util.Arrays;
 
+import static gametests.TestFields.randomField;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -223,4 +228,293 @@ class PlayFieldTest {
         playField.stepTo(30);
         assertTrue(Arrays.deepEquals(resultField, playField.getPlayField()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void stepForwardDoubleBuffered() {
+        int[][] startingField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_0.csv"));
+        int[][] resultField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_17_3,2-3.csv"));
+        playField.setPlayField(startingField);
+        playField.setDoubleBuffered(true);
+
+        playField.stepTo(1);
+        int[][] firstBuffer = playField.getPlayField();
+        playField.stepTo(2);
+        int[][] secondBuffer = playField.getPlayField();
+        playField.stepTo(3);
+
+        // The two buffers are reused alternately
+        assertSame(firstBuffer, playField.getPlayField());
+        assertNotSame(firstBuffer, secondBuffer);
+
+        playField.stepTo(17);
+        assertTrue(Arrays.deepEquals(resultField, playField.getPlayField()));
+        assertEquals(17, playField.getGeneration());
+
+        // The generations are not stored in the double buffered mode
+        assertFalse(playField.stepTo(16));
+    }
+
+    @Test
+    void stepForwardParallel() {
+        int[][] startingField = randomField(7, 200, 300);
+
+        PlayField sequentialField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        sequentialField.setPlayField(startingField);
+        playField.setPlayField(startingField);
+        playField.setParallelism(4);
+        assertEquals(4, playField.getParallelism());
+
+        for (int generation = 0; generation < 25; generation++) {
+            assertEquals(sequentialField.stepForward(), playField.stepForward());
+            assertEquals(sequentialField.getChangedCells(), playField.getChangedCells());
+            assertTrue(Arrays.deepEquals(sequentialField.getPlayField(), playField.getPlayField()));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> playField.setParallelism(0));
+        playField.setParallelism(1);
+    }
+
+    /**
+     * Compute the next generation with a modulo per neighbour (reference for the ghost rows)
+     *
+     * @param field    current generation
+     * @param topology TORUS or KLEIN_BOTTLE
+     * @return next generation (game rules: 3 / 2, 3)
+     */
+    private static int[][] wrappedStep(int[][] field, Topology topology) {
+        int dimensionY = field.length;
+        int dimensionX = field[0].length;
+        int[][] next = new int[dimensionY][dimensionX];
+
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                int neighbours = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if (dx == 0 && dy == 0) {
+                            continue;
+                        }
+                        int nx = Math.floorMod(x + dx, dimensionX);
+                        int ny = y + dy;
+                        // Leaving at the top or bottom mirrors the x position on the Klein bottle
+                        if ((ny < 0 || ny >= dimensionY) && topology == Topology.KLEIN_BOTTLE) {
+                            nx = dimensionX - 1 - nx;
+                        }
+                        neighbours += field[Math.floorMod(ny, dimensionY)][nx];
+                    }
+                }
+                next[y][x] = neighbours == 3 || (neighbours == 2 && field[y][x] == 1) ? 1 : 0;
+            }
+        }
+        return next;
+    }
+
+    @Test
+    void stepForwardTorus() {
+        playField.setSize(12, 12);
+        playField.setTopology(Topology.TORUS);
+        assertEquals(Topology.TORUS, playField.getTopology());
+
+        // Glider, which moves one cell down to the right every 4 generations
+        playField.setCell(1, 0, 1);
+        playField.setCell(2, 1, 1);
+        playField.setCell(0, 2, 1);
+        playField.setCell(1, 2, 1);
+        playField.setCell(2, 2, 1);
+        int[][] startingField = playField.getPlayField();
+
+        // After 4 * 12 generations the glider is back at its starting position
+        for (int generation = 0; generation < 48; generation++) {
+            assertTrue(playField.stepForward());
+            assertEquals(5, Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum());
+        }
+        assertTrue(Arrays.deepEquals(startingField, playField.getPlayField()));
+    }
+
+    @Test
+    void stepForwardWrappedSameResultAsModulo() {
+        int[][] startingField = randomField(3, 45, 70);
+
+        for (Topology topology : new Topology[]{Topology.TORUS, Topology.KLEIN_BOTTLE}) {
+            PlayField wrappedField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+            wrappedField.setPlayField(startingField);
+            wrappedField.setTopology(topology);
+            wrappedField.setDoubleBuffered(true);
+            wrappedField.setParallelism(3);
+
+            int[][] expected = startingField;
+            for (int generation = 0; generation < 30; generation++) {
+                expected = wrappedStep(expected, topology);
+                wrappedField.stepForward();
+                assertTrue(Arrays.deepEquals(expected, wrappedField.getPlayField()));
+            }
+            wrappedField.setParallelism(1);
+        }
+    }
+
+    /**
+     * Place copies of a play field next to each other, separated by 2 dead columns,
+     * so the next generation of every copy is the same as the next generation of the original
+     *
+     * @param field  play field to copy
+     * @param copies amount of copies
+     * @return int[][] array which contains the copies
+     */
+    private static int[][] repeatHorizontally(int[][] field, int copies) {
+        int width = field[0].length + 2;
+        int[][] repeated = new int[field.length][width * copies];
+        for (int y = 0; y < field.length; y++) {
+            for (int copy = 0; copy < copies; copy++) {
+                System.arraycopy(field[y], 0, repeated[y], copy * width, field[y].length);
+            }
+        }
+        return repeated;
+    }
+
+    @Test
+    void stepForwardVectorized() {
+        int[][] startingField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field0_0.csv"));
+        String[] nextFields = {
+            "resources/JUnitTests/PlayFieldTest/Field0_1_3,2-3.csv",
+            "resources/JUnitTests/PlayFieldTest/Field0_1_2-3-7,2-3-6.csv"};
+        String[] rules = {"B3/S23", "B237/S236"};
+
+        playField.setVectorized(true);
+        assertTrue(playField.isVectorized());
+
+        for (int i = 0; i < rules.length; i++) {
+            int[][] nextField = presetManager.loadPreset(Path.of(nextFields[i]));
+            // The copies are wide enough to fill full vectors
+            playField.setPlayField(repeatHorizontally(startingField, 8));
+            playField.setRule(rules[i]);
+            playField.stepForward();
+
+            // Every copy has to be equal to the next field (cells can be born between the copies)
+            int[][] result = playField.getPlayField();
+            int width = nextField[0].length;
+            for (int y = 0; y < nextField.length; y++) {
+                for (int copy = 0; copy < 8; copy++) {
+                    int from = copy * (width + 2);
+                    assertTrue(Arrays.equals(nextField[y], 0, width, result[y], from, from + width));
+                }
+            }
+        }
+
+        playField.setVectorized(false);
+        assertFalse(playField.isVectorized());
+    }
+
+    @Test
+    void stepForwardVectorizedSameResultAsScalar() {
+        for (int dimensionX : new int[]{1, 7, 17, 33, 100}) {
+            int[][] startingField = randomField(5 + dimensionX, dimensionX, 40);
+
+            for (Topology topology : Topology.values()) {
+                PlayField scalarField = new PlayField(0, 0, 1, new int[]{3, 6}, new int[]{2, 3});
+                scalarField.setVectorized(false);
+                scalarField.setTopology(topology);
+                scalarField.setPlayField(startingField);
+                playField.setVectorized(true);
+                playField.setTopology(topology);
+                playField.setRule("B36/S23");
+                playField.setPlayField(startingField);
+
+                for (int generation = 0; generation < 10; generation++) {
+                    assertEquals(scalarField.stepForward(), playField.stepForward());
+                    assertEquals(scalarField.getChangedCells(), playField.getChangedCells());
+                    assertTrue(Arrays.deepEquals(scalarField.getPlayField(), playField.getPlayField()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void placeRandomly() {
+        playField.setSize(150, 333);
+        playField.placeRandomly(42L, 0.3);
+        int[][] sequentialField = playField.getPlayField();
+        int livingCells = Arrays.stream(sequentialField).flatMapToInt(Arrays::stream).sum();
+        assertTrue(livingCells > 150 * 333 * 0.28 && livingCells < 150 * 333 * 0.32);
+
+        // The same seed gives the same play field, independent of the amount of threads
+        playField.setParallelism(4);
+        playField.placeRandomly(42L, 0.3);
+        assertTrue(Arrays.deepEquals(sequentialField, playField.getPlayField()));
+        playField.placeRandomly(43L, 0.3);
+        assertFalse(Arrays.deepEquals(sequentialField, playField.getPlayField()));
+
+        // Exact amount of living cells
+        playField.placeRandomCells(7L, 12345);
+        int[][] exactField = playField.getPlayField();
+        assertEquals(12345, Arrays.stream(exactField).flatMapToInt(Arrays::stream).sum());
+        playField.setParallelism(1);
+        playField.placeRandomCells(7L, 12345);
+        assertTrue(Arrays.deepEquals(exactField, playField.getPlayField()));
+
+        playField.placeRandomCells(1L, 150 * 333);
+        assertEquals(150 * 333, Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum());
+        playField.placeRandomly(1L, 0);
+        assertEquals(0, Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum());
+        assertThrows(IllegalArgumentException.class, () -> playField.placeRandomly(1L, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> playField.placeRandomCells(1L, -1));
+
+        // The play field of the GUI button has 30% to 50% living cells
+        playField.placeRandomly();
+        livingCells = Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum();
+        assertTrue(livingCells >= 150 * 333 * 0.3 - 1 && livingCells <= 150 * 333 * 0.5);
+    }
+
+    @Test
+    void advance() {
+        int[][] startingField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_0.csv"));
+        int[][] resultField = presetManager.loadPreset(
+                Path.of("resources/JUnitTests/PlayFieldTest/Field1_30_2-6,4-5.csv"));
+        playField.setPlayField(startingField);
+        playField.setReanimateRule(2, 6);
+        playField.setKeepLifeRule(4, 5);
+
+        assertEquals(30, playField.advance(30));
+        assertEquals(30, playField.getGeneration());
+        assertTrue(Arrays.deepEquals(resultField, playField.getPlayField()));
+
+        // Every generation is in the analysis, with the amount of living cells of the step
+        assertEquals(31, playField.getAnalysis().getCellsPerGen().size());
+        int livingCells = Arrays.stream(resultField).flatMapToInt(Arrays::stream).sum();
+        assertEquals(livingCells, playField.getAnalysis().getCellsPerGen().get(30)[0]);
+
+        // A still life stops the batch
+        playField.setSize(8, 8);
+        playField.setRule("B3/S23");
+        playField.resetGeneration();
+        playField.setCell(2, 2, 1);
+        playField.setCell(3, 2, 1);
+        playField.setCell(2, 3, 1);
+        assertEquals(1, playField.advance(100));
+        assertEquals(4.0, playField.getAnalysis().getCellsPerGen().get(1)[0]);
+    }
+
+    @Test
+    void getLivingCellsCounter() {
+        int[][] startingField = randomField(13, 60, 50);
+        playField.setPlayField(startingField);
+        playField.setParallelism(2);
+
+        // The counter follows the steps (sequential, parallel, double buffered) and the edited cells
+        for (int generation = 0; generation < 20; generation++) {
+            playField.setDoubleBuffered(generation >= 10);
+            playField.stepForward();
+            playField.setCell(generation, generation, 1);
+            playField.setCell(generation + 1, generation, 0);
+            int livingCells = Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum();
+            assertEquals(livingCells, playField.getLivingCells());
+        }
+
+        playField.setSize(5, 5);
+        assertEquals(0, playField.getLivingCells());
+        playField.setParallelism(1);
+    }
+}
@@ -0,0 +1,102 @@
+package gametests;
+
+import gameoflife.PlayField;
+import gameoflife.Rule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the Rule Class
+ *
+ * @author Richard Krikler
+ */
+class RuleTest {
+
+    /**
+     * Standard rules
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     */
+    private final Rule rule = new Rule(new int[]{3}, new int[]{3, 2, 3});
+
+
+    @Test
+    void getRules() {
+        assertEquals("3", rule.getReanimateRule());
+        assertEquals("2,3", rule.getKeepLifeRule());
+        assertEquals("B3/S23", rule.toString());
+        assertEquals(0b1000, rule.getReanimateMask());
+        assertEquals(0b1100, rule.getKeepLifeMask());
+    }
+
+    @Test
+    void nextState() {
+        assertEquals(1, rule.nextState(0, 3));
+        assertEquals(0, rule.nextState(0, 2));
+        assertEquals(1, rule.nextState(1, 2));
+        assertEquals(1, rule.nextState(1, 3));
+        assertEquals(0, rule.nextState(1, 4));
+        assertEquals(0, rule.nextState(1, 100));
+    }
+
+    @Test
+    void parse() {
+        assertEquals(rule, Rule.parse("B3/S23"));
+        assertEquals(rule, Rule.parse("b3/s32"));
+        assertEquals("B36/S23", Rule.parse("B36/S23").toString());
+        assertEquals("B/S", Rule.parse("B/S").toString());
+
+        assertTrue(Rule.isValid("B2/S"));
+        assertFalse(Rule.isValid("3,2-3"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("S23/B3"));
+    }
+
+    @Test
+    void parseLargerThanLife() {
+        // Bosco's rule
+        Rule bosco = Rule.parse("R5,B34-45,S33-57");
+        assertEquals(5, bosco.getRadius());
+        assertEquals(120, bosco.getMaxNeighbours());
+        assertEquals("R5,B34-45,S33-57", bosco.toString());
+        assertEquals(1, bosco.nextState(0, 34));
+        assertEquals(0, bosco.nextState(0, 46));
+        assertEquals(1, bosco.nextState(1, 57));
+        assertEquals(5, bosco.withKeepLifeRule(40).getRadius());
+
+        assertEquals("R2,B3,5-7,S", Rule.parse("r2,b7,3,5-6,S").toString());
+        // The radius 1 is the standard rule
+        assertEquals(rule, Rule.parse("R1,B3,S2-3"));
+        assertEquals(8, rule.getMaxNeighbours());
+
+        assertTrue(Rule.isValid("R10,B1-2,S3"));
+        assertFalse(Rule.isValid("R0,B3,S23"));
+        assertFalse(Rule.isValid("R17,B3,S23"));
+        assertFalse(Rule.isValid("R2,B3/S23"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("R99,B3,S2"));
+        assertThrows(IllegalArgumentException.class, () -> new Rule(0, new int[]{3}, new int[]{2}));
+    }
+
+    @Test
+    void withRules() {
+        Rule highLife = rule.withReanimateRule(6, 3);
+        assertEquals("B36/S23", highLife.toString());
+        assertEquals("B36/S", highLife.withKeepLifeRule().toString());
+        // The original rule is not changed
+        assertEquals("B3/S23", rule.toString());
+    }
+
+    @Test
+    void setRuleOfPlayField() {
+        PlayField playField = new PlayField(3, 3);
+        playField.setRule("B36/S23");
+        assertEquals("3,6", playField.getReanimateRule());
+        assertEquals("2,3", playField.getKeepLifeRule());
+
+        playField.setKeepLifeRule("1,2");
+        assertEquals("B36/S12", playField.getRule().toString());
+    }
+}
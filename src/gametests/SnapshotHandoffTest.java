@@ -0,0 +1,156 @@
+package gametests;
+
+import gameoflife.GenerationSnapshot;
+import gameoflife.PlayField;
+import gameoflife.SnapshotHandoff;
+import gameoflife.Topology;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the SnapshotHandoff Class (and the GenerationSnapshot of the PlayField)
+ *
+ * @author Richard Krikler
+ */
+class SnapshotHandoffTest {
+
+    /**
+     * Store the handoff inside the SnapshotHandoff Object
+     */
+    private final SnapshotHandoff handoff = new SnapshotHandoff();
+
+
+    /**
+     * Count the living cells of a snapshot
+     *
+     * @param snapshot snapshot of a generation
+     * @return amount of living cells
+     */
+    private static int countLiving(GenerationSnapshot snapshot) {
+        int livingCells = 0;
+        for (int y = 0; y < snapshot.getDimensionY(); y++) {
+            for (int x = 0; x < snapshot.getDimensionX(); x++) {
+                livingCells += snapshot.getCell(x, y);
+            }
+        }
+        return livingCells;
+    }
+
+
+    @Test
+    void snapshot() {
+        PlayField playField = new PlayField(8, 6);
+        playField.setRule("B3/S23");
+        playField.setCell(1, 2, 1);
+        playField.setCell(2, 2, 1);
+        playField.setCell(3, 2, 1);
+        assertNull(handoff.getLatest());
+
+        GenerationSnapshot snapshot = handoff.publish(playField);
+        assertEquals(snapshot, handoff.getLatest());
+        assertEquals(8, snapshot.getDimensionX());
+        assertEquals(6, snapshot.getDimensionY());
+        assertEquals(0, snapshot.getGeneration());
+        assertEquals(3, snapshot.getLivingCells());
+
+        // Neither the steps of the play field nor a changed copy change the snapshot
+        playField.stepForward();
+        snapshot.toArray()[2][1] = 0;
+        assertEquals(1, snapshot.getCell(1, 2));
+        assertEquals(0, snapshot.getCell(2, 1));
+        assertEquals(1, playField.getCell(2, 1));
+
+        // Edits are only applied by the owner of the play field
+        handoff.queueEdit(field -> field.setCell(7, 5, 1));
+        assertTrue(handoff.hasPendingEdits());
+        assertEquals(0, playField.getCell(7, 5));
+        assertEquals(1, handoff.applyEdits(playField));
+        assertFalse(handoff.hasPendingEdits());
+        assertEquals(1, playField.getCell(7, 5));
+        assertEquals(1, handoff.getLatest().getCell(7, 5));
+        assertEquals(1, handoff.getLatest().getGeneration());
+        assertEquals(0, handoff.applyEdits(playField));
+    }
+
+    @Test
+    void coalescedFrames() {
+        PlayField playField = new PlayField(32, 32);
+        playField.setRule("B3/S23");
+        playField.setTopology(Topology.TORUS);
+        playField.setDoubleBuffered(true);
+        playField.placeRandomly(7, 0.4);
+
+        // The first snapshot is requested from the start, afterwards every 10th generation is drawn
+        int published = 0;
+        for (int generation = 1; generation <= 100; generation++) {
+            playField.advance(1);
+            if (handoff.publishIfRequested(playField)) {
+                published++;
+                assertEquals(generation, handoff.getLatest().getGeneration());
+            }
+            if (generation % 10 == 0) {
+                handoff.requestSnapshot();
+            }
+        }
+        assertEquals(10, published);
+        assertEquals(91, handoff.getLatest().getGeneration());
+
+        // The skipped generations are still in the analysis
+        for (int generation = 1; generation <= playField.getGeneration(); generation++) {
+            assertTrue(playField.getAnalysis().getCellsPerGen().containsKey(generation));
+        }
+
+        // A published snapshot takes back the request
+        handoff.requestSnapshot();
+        handoff.publish(playField);
+        assertFalse(handoff.publishIfRequested(playField));
+    }
+
+    @Test
+    void concurrentHandoff() throws InterruptedException {
+        PlayField playField = new PlayField(48, 48);
+        playField.setRule("B3/S23");
+        playField.setTopology(Topology.TORUS);
+        playField.setDoubleBuffered(true);
+        playField.placeRandomly(3, 0.4);
+        handoff.publish(playField);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger appliedEdits = new AtomicInteger();
+
+        // Simulation thread: the only thread, which changes the play field
+        Thread simulation = new Thread(() -> {
+            while (running.get()) {
+                appliedEdits.addAndGet(handoff.applyEdits(playField));
+                playField.stepForward();
+                handoff.publish(playField);
+            }
+            appliedEdits.addAndGet(handoff.applyEdits(playField));
+        });
+        simulation.start();
+
+        // Reader: every snapshot is a complete generation
+        int lastGeneration = 0;
+        for (int read = 0; read < 2000; read++) {
+            GenerationSnapshot snapshot = handoff.getLatest();
+            assertEquals(snapshot.getLivingCells(), countLiving(snapshot));
+            assertTrue(snapshot.getGeneration() >= lastGeneration);
+            lastGeneration = snapshot.getGeneration();
+
+            int posX = read % 48;
+            handoff.queueEdit(field -> field.setCell(posX, 0, 1));
+        }
+
+        running.set(false);
+        simulation.join();
+        assertEquals(2000, appliedEdits.get());
+        assertFalse(handoff.hasPendingEdits());
+    }
+}
@@ -0,0 +1,103 @@
+package gametests;
+
+import gameoflife.PlayField;
+import gameoflife.Rule;
+import gameoflife.SoupSearch;
+import gameoflife.Zobrist;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the SoupSearch Class (and the canonical hash of the Zobrist Class)
+ *
+ * @author Richard Krikler
+ */
+class SoupSearchTest {
+
+    /**
+     * Search for soups of 16x16 cells with the standard rules, at most 500 generations, best 10 results
+     */
+    private final SoupSearch soupSearch = new SoupSearch(16, 16, Rule.parse("B3/S23"), 0.4, 500, 10);
+
+
+    @Test
+    void canonicalHash() {
+        // Glider, moved, rotated and mirrored
+        int[][] glider = new int[8][8];
+        glider[0][1] = 1;
+        glider[1][2] = 1;
+        glider[2][0] = 1;
+        glider[2][1] = 1;
+        glider[2][2] = 1;
+        int[][] rotated = new int[8][8];
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                // Rotated by 90 degrees and moved down to the right
+                if (y < 5 && x < 5 && glider[y][x] == 1) {
+                    rotated[x + 3][7 - y - 1] = 1;
+                }
+            }
+        }
+        int[][] mirrored = new int[8][8];
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                mirrored[y][7 - x] = glider[y][x];
+            }
+        }
+
+        assertEquals(Zobrist.canonicalHash(glider), Zobrist.canonicalHash(rotated));
+        assertEquals(Zobrist.canonicalHash(glider), Zobrist.canonicalHash(mirrored));
+        assertNotEquals(Zobrist.hash(glider), Zobrist.hash(mirrored));
+        assertEquals(0L, Zobrist.canonicalHash(new int[3][3]));
+
+        glider[7][7] = 1;
+        assertNotEquals(Zobrist.canonicalHash(mirrored), Zobrist.canonicalHash(glider));
+    }
+
+    @Test
+    void search() {
+        soupSearch.setParallelism(1);
+        List<SoupSearch.Result> sequentialResults = soupSearch.search(11L, 200);
+        assertEquals(10, sequentialResults.size());
+
+        // Ordered by the lifespan, without duplicated final patterns
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < sequentialResults.size(); i++) {
+            SoupSearch.Result result = sequentialResults.get(i);
+            assertTrue(hashes.add(result.getCanonicalHash()));
+            if (i > 0) {
+                assertTrue(sequentialResults.get(i - 1).getLifespan() >= result.getLifespan());
+            }
+        }
+
+        // The same results with more threads
+        soupSearch.clear();
+        soupSearch.setParallelism(4);
+        List<SoupSearch.Result> parallelResults = soupSearch.search(11L, 200);
+        assertEquals(sequentialResults.size(), parallelResults.size());
+        for (int i = 0; i < parallelResults.size(); i++) {
+            assertEquals(sequentialResults.get(i).getSeed(), parallelResults.get(i).getSeed());
+        }
+
+        // The best soup can be reproduced with its seed
+        SoupSearch.Result best = parallelResults.get(0);
+        PlayField playField = new PlayField(16, 16);
+        playField.setRule("B3/S23");
+        playField.placeRandomly(best.getSeed(), 0.4);
+        while (!playField.isCycleDetected() && playField.getGeneration() < 500) {
+            playField.stepForward();
+        }
+        assertEquals(best.getLifespan(), playField.getCycleStart());
+        assertEquals(best.getPeriod(), playField.getCyclePeriod());
+
+        assertThrows(IllegalArgumentException.class, () -> soupSearch.setParallelism(0));
+    }
+}
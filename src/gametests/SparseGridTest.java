@@ -0,0 +1,175 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.PlayField;
+import gameoflife.Rule;
+import gameoflife.SparseGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the SparseGrid Class
+ *
+ * @author Richard Krikler
+ */
+class SparseGridTest {
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 10; Y: 10
+     * game speed of 1 second per generation
+     * standard rules for
+     * - reanimate rule: 3
+     * - keep life rule: 2, 3
+     */
+    private final PlayField playField = new PlayField(10, 10, 1, new int[]{3}, new int[]{2, 3});
+
+
+    /**
+     * Place a glider, which moves down to the right
+     *
+     * @param playField play field
+     * @param posX      x position of the glider
+     * @param posY      y position of the glider
+     */
+    private static void placeGlider(PlayField playField, int posX, int posY) {
+        playField.setCell(posX + 1, posY, 1);
+        playField.setCell(posX + 2, posY + 1, 1);
+        playField.setCell(posX, posY + 2, 1);
+        playField.setCell(posX + 1, posY + 2, 1);
+        playField.setCell(posX + 2, posY + 2, 1);
+    }
+
+
+    @Test
+    void getAndSetCell() {
+        SparseGrid sparseGrid = new SparseGrid(10, 10);
+        playField.setEngine(sparseGrid);
+        playField.setCell(2, 3, 1);
+        playField.setCell(-70, 1000, 1);
+        playField.setCell(-70, 1000, 0);
+        playField.setCell(-1, -1, 1);
+
+        assertEquals(1, playField.getCell(2, 3));
+        assertEquals(0, playField.getCell(-70, 1000));
+        assertEquals(1, playField.getCell(-1, -1));
+        assertEquals(0, playField.getCell(63, 63));
+        assertEquals(2, sparseGrid.countLiving());
+        // Only the visible part is copied into the array
+        assertEquals(10, playField.getPlayField().length);
+        assertEquals(1, playField.getPlayField()[3][2]);
+        assertEquals(1, Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum());
+    }
+
+    @Test
+    void gliderLeavesPlayField() {
+        SparseGrid sparseGrid = new SparseGrid(10, 10);
+        playField.setEngine(sparseGrid);
+        placeGlider(playField, 0, 0);
+
+        // The glider moves one cell down to the right every 4 generations
+        for (int generation = 0; generation < 400; generation++) {
+            assertTrue(playField.stepForward());
+        }
+        assertEquals(5, sparseGrid.countLiving());
+        assertEquals(1, playField.getCell(101, 100));
+        assertEquals(1, playField.getCell(102, 101));
+        assertEquals(1, playField.getCell(100, 102));
+        assertEquals(0, Arrays.stream(playField.getPlayField()).flatMapToInt(Arrays::stream).sum());
+        // Memory follows the glider, the chunks behind it are freed
+        assertTrue(sparseGrid.getChunkCount() <= 4);
+
+        // On the bounded play field the glider turns into a block at the border
+        playField.setEngine(new BitGrid(10, 10));
+        placeGlider(playField, 0, 0);
+        for (int generation = 0; generation < 400; generation++) {
+            playField.stepForward();
+        }
+        assertEquals(4, playField.getEngine().countLiving());
+    }
+
+    @Test
+    void sameResultAsIntArray() {
+        Random random = new Random(7);
+        int[][] field = new int[300][300];
+        // Random area in the middle, which does not reach the border within the generations
+        for (int y = 100; y < 200; y++) {
+            for (int x = 100; x < 200; x++) {
+                field[y][x] = random.nextInt(2);
+            }
+        }
+
+        PlayField arrayField = new PlayField(0, 0, 1, new int[]{3}, new int[]{2, 3});
+        arrayField.setPlayField(field);
+        SparseGrid sparseGrid = new SparseGrid(0, 0);
+        playField.setEngine(sparseGrid);
+        playField.setPlayField(field);
+
+        for (int generation = 0; generation < 80; generation++) {
+            assertEquals(arrayField.stepForward(), playField.stepForward());
+            assertTrue(Arrays.deepEquals(arrayField.getPlayField(), playField.getPlayField()));
+        }
+        assertEquals(Arrays.stream(arrayField.getPlayField()).flatMapToInt(Arrays::stream).sum(),
+                sparseGrid.countLiving());
+
+        // The generations are stored packed into bits for stepping back
+        assertTrue(arrayField.stepTo(40));
+        assertTrue(playField.stepTo(40));
+        assertTrue(Arrays.deepEquals(arrayField.getPlayField(), playField.getPlayField()));
+    }
+
+    @Test
+    void emptyChunksAreFreed() {
+        SparseGrid sparseGrid = new SparseGrid(10, 10);
+        playField.setEngine(sparseGrid);
+
+        // A single cell dies, its chunk is kept one generation longer for the neighbours
+        playField.setCell(200, 200, 1);
+        assertEquals(1, sparseGrid.getChunkCount());
+        assertTrue(playField.stepForward());
+        assertFalse(playField.stepForward());
+        assertEquals(0, sparseGrid.getChunkCount());
+        assertEquals(0, sparseGrid.countLiving());
+
+        // Still life: only stable chunks remain, nothing is computed anymore
+        playField.setCell(0, 0, 1);
+        playField.setCell(1, 0, 1);
+        playField.setCell(0, 1, 1);
+        playField.setCell(1, 1, 1);
+        assertFalse(playField.stepForward());
+        assertFalse(playField.stepForward());
+        assertEquals(1, sparseGrid.getChunkCount());
+        assertEquals(0, sparseGrid.getUpdatedChunks());
+    }
+
+    @Test
+    void unsupportedRule() {
+        SparseGrid sparseGrid = new SparseGrid(10, 10);
+        assertTrue(sparseGrid.supports(Rule.parse("B3/S23")));
+        assertFalse(sparseGrid.supports(Rule.parse("B0/S")));
+        assertFalse(sparseGrid.supports(Rule.parse("R2,B7-9,S6-11")));
+        assertTrue(new BitGrid(10, 10).supports(Rule.parse("B0/S")));
+        assertFalse(new BitGrid(10, 10).supports(Rule.parse("R2,B7-9,S6-11")));
+
+        // The rules are rejected before the game runs, in both orders
+        playField.setEngine(sparseGrid);
+        assertThrows(IllegalArgumentException.class, () -> playField.setRule("B0/S"));
+        assertThrows(IllegalArgumentException.class, () -> playField.setReanimateRule(0, 3));
+        assertEquals("B3/S23", playField.getRule().toString());
+
+        playField.setEngine(null);
+        playField.setRule("R2,B7-9,S6-11");
+        assertThrows(IllegalArgumentException.class, () -> playField.setEngine(new SparseGrid(10, 10)));
+        assertNull(playField.getEngine());
+    }
+}
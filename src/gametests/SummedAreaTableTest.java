@@ -0,0 +1,159 @@
+package gametests;
+
+import gameoflife.BitGrid;
+import gameoflife.PlayField;
+import gameoflife.Rule;
+import gameoflife.Topology;
+import gameoflife.Zobrist;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static gametests.TestFields.randomField;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the Larger than Life rules, which are computed with the SummedAreaTable Class
+ *
+ * @author Richard Krikler
+ */
+class SummedAreaTableTest {
+
+    /**
+     * Store the play field inside the PlayField Object
+     * <p>
+     * PlayField with:
+     * size of X: 40; Y: 30
+     * game speed of 1 second per generation
+     * no game rules (every test sets a Larger than Life rule)
+     */
+    private final PlayField playField = new PlayField(40, 30, 1, new int[0], new int[0]);
+
+
+    /**
+     * Compute the next generation by counting every neighbour of every cell (O(radius^2) per cell)
+     *
+     * @param current  current generation
+     * @param rule     game rules
+     * @param topology topology of the play field
+     * @return next generation
+     */
+    private static int[][] naiveStep(int[][] current, Rule rule, Topology topology) {
+        int dimensionY = current.length;
+        int dimensionX = current[0].length;
+        int radius = rule.getRadius();
+        int[][] next = new int[dimensionY][dimensionX];
+        for (int y = 0; y < dimensionY; y++) {
+            for (int x = 0; x < dimensionX; x++) {
+                int livingNeighbours = 0;
+                for (int offsetY = -radius; offsetY <= radius; offsetY++) {
+                    for (int offsetX = -radius; offsetX <= radius; offsetX++) {
+                        if (offsetX != 0 || offsetY != 0) {
+                            livingNeighbours += neighbour(current, x + offsetX, y + offsetY, topology);
+                        }
+                    }
+                }
+                next[y][x] = rule.nextState(current[y][x], livingNeighbours);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Get a cell, positions outside of the play field are mapped by the topology
+     *
+     * @param current  play field
+     * @param posX     x position
+     * @param posY     y position
+     * @param topology topology of the play field
+     * @return state of the cell
+     */
+    private static int neighbour(int[][] current, int posX, int posY, Topology topology) {
+        int dimensionY = current.length;
+        int dimensionX = current[0].length;
+        if (topology == Topology.BOUNDED) {
+            return posX >= 0 && posX < dimensionX && posY >= 0 && posY < dimensionY ? current[posY][posX] : 0;
+        }
+        // Step over the top or bottom border one row at a time
+        int x = posX;
+        int y = posY;
+        while (y < 0 || y >= dimensionY) {
+            y += y < 0 ? dimensionY : -dimensionY;
+            if (topology == Topology.KLEIN_BOTTLE) {
+                x = dimensionX - 1 - Math.floorMod(x, dimensionX);
+            }
+        }
+        return current[y][Math.floorMod(x, dimensionX)];
+    }
+
+
+    @Test
+    void sameResultAsNaiveCount() {
+        Rule[] rules = {Rule.parse("R5,B34-45,S33-57"), Rule.parse("R2,B7-9,S6-11"),
+                Rule.parse("R10,B100-180,S90-220")};
+        for (Topology topology : Topology.values()) {
+            for (Rule rule : rules) {
+                int[][] field = randomField(rule.getRadius(), 40, 30);
+                playField.setTopology(topology);
+                playField.setRule(rule);
+                playField.setPlayField(field);
+
+                for (int generation = 0; generation < 5; generation++) {
+                    field = naiveStep(field, rule, topology);
+                    playField.stepForward();
+                    assertTrue(Arrays.deepEquals(field, playField.getPlayField()), topology + " " + rule);
+                    assertEquals(Zobrist.hash(field), playField.getHash());
+                }
+            }
+        }
+    }
+
+    @Test
+    void parallelBands() {
+        Rule rule = Rule.parse("R4,B20-30,S18-36");
+        int[][] field = randomField(3, 70, 130);
+        PlayField parallelField = new PlayField(0, 0, 1, new int[0], new int[0]);
+        parallelField.setParallelism(4);
+        parallelField.setRule(rule);
+        parallelField.setPlayField(field);
+
+        for (int generation = 0; generation < 5; generation++) {
+            field = naiveStep(field, rule, Topology.BOUNDED);
+            parallelField.stepForward();
+            assertTrue(Arrays.deepEquals(field, parallelField.getPlayField()));
+        }
+        parallelField.setParallelism(1);
+    }
+
+    @Test
+    void stepBackAndCycles() {
+        // Every cell of a 3x3 block has 8 living neighbours, the dead cells around it at most 6
+        playField.setRule("R2,B9-10,S8");
+        for (int y = 10; y < 13; y++) {
+            for (int x = 10; x < 13; x++) {
+                playField.setCell(x, y, 1);
+            }
+        }
+        assertFalse(playField.stepForward());
+        assertTrue(playField.isCycleDetected());
+
+        // Large jumps are not fast-forwarded by HashLife for a radius larger than 1
+        playField.setRule("R5,B34-45,S33-57");
+        playField.setPlayField(randomField(5, 40, 30));
+        int[][] start = playField.getPlayField();
+        playField.setHashLifeThreshold(2);
+        assertTrue(playField.stepTo(4));
+        assertTrue(playField.stepTo(0));
+        assertTrue(Arrays.deepEquals(start, playField.getPlayField()));
+
+        // The bit grid engines only support the Moore neighbourhood, they are rejected before the game runs
+        assertThrows(IllegalArgumentException.class, () -> playField.setEngine(new BitGrid(40, 30)));
+        assertNull(playField.getEngine());
+        assertTrue(playField.stepForward());
+    }
+
+}
@@ -0,0 +1,37 @@
+package gametests;
+
+import java.util.Random;
+
+/**
+ * Play fields for the tests: the same parameters always give the same play field
+ *
+ * @author Richard Krikler
+ */
+final class TestFields {
+
+    /**
+     * TestFields Constructor (only static methods)
+     */
+    private TestFields() {
+    }
+
+
+    /**
+     * Create a random play field (every cell is alive with a probability of 50%)
+     *
+     * @param seed       seed of the random generator
+     * @param dimensionX x dimension of the play field
+     * @param dimensionY y dimension of the play field
+     * @return int[][] array which contains the play field
+     */
+    static int[][] randomField(long seed, int dimensionX, int dimensionY) {
+        Random random = new Random(seed);
+        int[][] field = new int[dimensionY][dimensionX];
+        for (int[] row : field) {
+            for (int x = 0; x < dimensionX; x++) {
+                row[x] = random.nextInt(2);
+            }
+        }
+        return field;
+    }
+}